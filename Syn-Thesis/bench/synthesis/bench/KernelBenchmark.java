@@ -0,0 +1,99 @@
+/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
+ * 
+ * This file is part of SynThesis.
+ * SynThesis is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package synthesis.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import synthesis.logic.Synthesizer;
+
+/**
+ * Measures the rendering of 32 notes with the scalar wavetable kernel
+ * and with the Vector API kernel with different vector widths. The kernel
+ * is selected when it is loaded, so each width runs in its own JVM. 
+ * The scores are in ns per sample.
+ * 
+ * @author Matthias Birschl
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class KernelBenchmark {
+
+	private static final int VOICES = 32;
+	private static final String VECTOR_MODULE = "--add-modules=jdk.incubator.vector";
+
+	private Synthesizer synth;
+	private final float[] left = new float[RenderBenchmark.BLOCK_SIZE];
+	private final float[] right = new float[RenderBenchmark.BLOCK_SIZE];
+
+	@Setup
+	public void setUp(){
+		synth = RenderBenchmark.createSynthesizer();
+		for(int i = 0; i < VOICES; i++){
+			synth.noteOn(24 + i, 0.8f);
+		}
+	}
+
+	private float[] render(){
+		synth.render(left, right, 0, RenderBenchmark.BLOCK_SIZE);
+		return left;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(RenderBenchmark.BLOCK_SIZE)
+	@Fork(value = 1, jvmArgsAppend = "-Dsynthesis.vectorKernel=false")
+	public float[] scalar(){
+		return render();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(RenderBenchmark.BLOCK_SIZE)
+	@Fork(value = 1, jvmArgsAppend = { VECTOR_MODULE, "-Dsynthesis.vectorBits=128" })
+	public float[] vector128(){
+		return render();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(RenderBenchmark.BLOCK_SIZE)
+	@Fork(value = 1, jvmArgsAppend = { VECTOR_MODULE, "-Dsynthesis.vectorBits=256" })
+	public float[] vector256(){
+		return render();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(RenderBenchmark.BLOCK_SIZE)
+	@Fork(value = 1, jvmArgsAppend = { VECTOR_MODULE, "-Dsynthesis.vectorBits=512" })
+	public float[] vector512(){
+		return render();
+	}
+
+}
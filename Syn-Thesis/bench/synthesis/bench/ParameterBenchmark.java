@@ -0,0 +1,116 @@
+/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
+ * 
+ * This file is part of SynThesis.
+ * SynThesis is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package synthesis.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import synthesis.logic.Envelope;
+import synthesis.logic.Frequency;
+import synthesis.logic.Oscillator;
+import synthesis.logic.WaveForm;
+import synthesis.util.Constants;
+
+/**
+ * Measures the methods, which are called when the user or the host changes
+ * a parameter, and the interpolated table lookup.
+ * 
+ * @author Matthias Birschl
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParameterBenchmark {
+
+	private static final int LOOKUPS = 1024;
+
+	private final WaveForm waveForm = new Frequency(3);
+	private final Oscillator oscillator = new Oscillator();
+	private final Envelope envelope = new Envelope();
+
+	private final float[] levels = new float[Constants.NUM_ADDITIVE_FREQS];
+	private final float[] otherLevels = new float[Constants.NUM_ADDITIVE_FREQS];
+	private int round = 0;
+
+	@Setup
+	public void setUp(){
+		for(int i = 0; i < levels.length; i++){
+			levels[i] = 1f / (i + 1);
+			otherLevels[i] = -1f / (i + 1);
+		}
+		oscillator.setAdditiveFreqLevels(levels);
+	}
+
+	/**
+	 * Score in ns per lookup
+	 */
+	@Benchmark
+	@OperationsPerInvocation(LOOKUPS)
+	public float getInterpSample(){
+		float sum = 0;
+		float pos = 0.37f;
+		for(int i = 0; i < LOOKUPS; i++){
+			sum += waveForm.getInterpSample(pos);
+			pos += 1.73f;
+		}
+		return sum;
+	}
+
+	/**
+	 * Changes the level of a single overtone, like moving one slider 
+	 */
+	@Benchmark
+	public Oscillator setOneAdditiveFreqLevel(){
+		round++;
+		levels[round % levels.length] = (round & 1) == 0 ? 0.5f : 0.25f;
+		oscillator.setAdditiveFreqLevels(levels);
+		return oscillator;
+	}
+
+	/**
+	 * Changes the levels of all overtones, like loading a preset
+	 */
+	@Benchmark
+	public Oscillator setAllAdditiveFreqLevels(){
+		round++;
+		oscillator.setAdditiveFreqLevels((round & 1) == 0 ? levels : otherLevels);
+		return oscillator;
+	}
+
+	@Benchmark
+	public Envelope setADSR(){
+		round++;
+		envelope.setADSR(round & 1023, 200, 0.5f, 1000);
+		return envelope;
+	}
+
+}
@@ -0,0 +1,116 @@
+/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
+ * 
+ * This file is part of SynThesis.
+ * SynThesis is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package synthesis.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import synthesis.logic.Synthesizer;
+import synthesis.util.Constants;
+
+/**
+ * Measures the rendering of the synthesizer with different numbers of 
+ * playing notes. All benchmarks process one block, the scores are in 
+ * ns per sample.
+ * 
+ * @author Matthias Birschl
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark {
+
+	static final int BLOCK_SIZE = 256;
+
+	@Param({ "1", "8", "32", "128" })
+	private int voices;
+
+	/**
+	 * Renders the notes with the note objects or with a structure of arrays
+	 * @see Synthesizer#setStructureOfArrays(boolean)
+	 */
+	@Param({ "false", "true" })
+	private boolean structureOfArrays;
+
+	private Synthesizer synth;
+	private final float[] left = new float[BLOCK_SIZE];
+	private final float[] right = new float[BLOCK_SIZE];
+
+	@Setup(Level.Trial)
+	public void setUp(){
+		synth = createSynthesizer();
+		synth.setMaxVoices(voices);
+		synth.setStructureOfArrays(structureOfArrays);
+
+		// The notes are never released, so the number of voices stays the same 
+		for(int i = 0; i < voices; i++){
+			synth.noteOn(i, 0.8f);
+		}
+	}
+
+	/**
+	 * Creates a synthesizer, whose oscillators all play some overtones
+	 * with a sustain level, so that the notes don't stop
+	 */
+	static Synthesizer createSynthesizer(){
+		final Synthesizer synth = Synthesizer.createWithoutPresets();
+		for(int i = 0; i < Constants.NUM_OSCILLATORS; i++){
+			final float[] levels = new float[Constants.NUM_ADDITIVE_FREQS];
+			for(int j = i; j < levels.length; j += Constants.NUM_OSCILLATORS){
+				levels[j] = 1f / (j + 1);
+			}
+			synth.getOscillator(i).setAdditiveFreqLevels(levels);
+			synth.getOscillator(i).getEnvelope().setADSR(10, 100, 0.8f, 500);
+		}
+		return synth;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BLOCK_SIZE)
+	public float getNextSample(){
+		float sum = 0;
+		for(int i = 0; i < BLOCK_SIZE; i++){
+			sum += synth.getNextSample();
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BLOCK_SIZE)
+	public float[] render(){
+		synth.render(left, right, 0, BLOCK_SIZE);
+		return left;
+	}
+
+}
@@ -0,0 +1,134 @@
+/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
+ * 
+ * This file is part of SynThesis.
+ * SynThesis is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package synthesis.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import synthesis.logic.Envelope;
+import synthesis.logic.Synthesizer;
+import synthesis.logic.VST_Adapter;
+import synthesis.util.Constants;
+
+/**
+ * Measures the rendering of notes at different positions within their
+ * release phase. If the levels decayed into denormal numbers, the scores
+ * near the end of the release would rise. At 100 percent the notes are 
+ * over, so the score shows, whether they stop costing anything. The 
+ * scores are in ns per note and sample.
+ * 
+ * @author Matthias Birschl
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TailBenchmark {
+
+	private static final int RELEASE_TIME = 1000;
+	private static final int BLOCK_SIZE = RenderBenchmark.BLOCK_SIZE;
+
+	/**
+	 * The number of blocks of one invocation. They cover about 2.5 percent 
+	 * of the release time.
+	 */
+	private static final int BLOCKS = 4;
+
+	/**
+	 * The number of notes, which are released together. They make an 
+	 * invocation long enough, that the overhead of the setup of each 
+	 * invocation doesn't distort the score.
+	 */
+	private static final int NOTES = 64;
+
+	/**
+	 * The position in the release phase in percent of the release time
+	 */
+	@Param({ "0", "25", "50", "75", "90", "99", "100" })
+	private int position;
+
+	@Param({ "false", "true" })
+	private boolean exponential;
+
+	private Synthesizer synth;
+	private final float[] left = new float[BLOCK_SIZE];
+	private final float[] right = new float[BLOCK_SIZE];
+
+	@Setup(Level.Trial)
+	public void setUp(){
+		synth = RenderBenchmark.createSynthesizer();
+		synth.setMaxVoices(NOTES);
+		for(int i = 0; i < Constants.NUM_OSCILLATORS; i++){
+			final Envelope envelope = synth.getOscillator(i).getEnvelope();
+			envelope.setADSR(1, 1, 1, RELEASE_TIME);
+			envelope.setExponential(exponential);
+		}
+	}
+
+	/**
+	 * Lets the notes of the last invocation finish, so that the new notes 
+	 * start from the beginning instead of being retriggered. Then plays 
+	 * the notes and renders them up to the measured position.
+	 */
+	@Setup(Level.Invocation)
+	public void playToPosition(){
+		while(synth.getActiveVoiceCount() > 0){
+			render(1);
+		}
+
+		for(int i = 0; i < NOTES; i++){
+			synth.noteOn(36 + i, 0.8f);
+		}
+		render(1);
+		for(int i = 0; i < NOTES; i++){
+			synth.noteOff(36 + i);
+		}
+
+		final float samples = VST_Adapter.getCurrentSampleRate() * RELEASE_TIME / 1000 * position / 100;
+		render(Math.round(samples / BLOCK_SIZE));
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NOTES * BLOCKS * BLOCK_SIZE)
+	public float[] render(){
+		render(BLOCKS);
+		return left;
+	}
+
+	private void render(final int blocks){
+		for(int i = 0; i < blocks; i++){
+			synth.render(left, right, 0, BLOCK_SIZE);
+		}
+	}
+
+}
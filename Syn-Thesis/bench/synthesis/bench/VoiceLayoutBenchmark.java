@@ -0,0 +1,191 @@
+/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
+ * 
+ * This file is part of SynThesis.
+ * SynThesis is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package synthesis.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import synthesis.logic.WaveForm;
+
+/**
+ * Compares the memory layout of the voice state with the core of the 
+ * render loop: a wavetable lookup per voice and sample, multiplied with
+ * an envelope, that is calculated with one multiplication and one addition.
+ * <ul>
+ * <li>objectLayout: One object per voice, the envelope is calculated into 
+ * a buffer before the oscillator loop. This is the layout of {@code Note}.</li>
+ * <li>objectLayoutFused: One object per voice, the envelope is calculated
+ * within the oscillator loop.</li>
+ * <li>structureOfArrays: Parallel arrays of the phases, increments, envelope 
+ * levels and gains of all voices. The loop over the voices is the inner 
+ * loop, so the updates of the phases and levels can be vectorized.</li>
+ * </ul>
+ * The scores are in ns per frame.
+ * 
+ * @author Matthias Birschl
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VoiceLayoutBenchmark {
+
+	private static final int BLOCK_SIZE = 256;
+
+	@Param({ "8", "32", "128" })
+	private int voices;
+
+	private final float[] out = new float[BLOCK_SIZE];
+	private final float[] envBuffer = new float[BLOCK_SIZE];
+
+	/**
+	 * The state of one voice in the object layout
+	 */
+	private static final class Voice {
+		WaveForm waveForm;
+		int phase;
+		int increment;
+		float level;
+		float multiplier;
+		float offset;
+		float gain;
+	}
+
+	private Voice[] voiceObjects;
+
+	private WaveForm[] waveForms;
+	private int[] phases;
+	private int[] increments;
+	private float[] levels;
+	private float[] multipliers;
+	private float[] offsets;
+	private float[] gains;
+
+	@Setup
+	public void setUp(){
+		voiceObjects = new Voice[voices];
+		waveForms = new WaveForm[voices];
+		phases = new int[voices];
+		increments = new int[voices];
+		levels = new float[voices];
+		multipliers = new float[voices];
+		offsets = new float[voices];
+		gains = new float[voices];
+
+		for(int v = 0; v < voices; v++){
+			final WaveForm waveForm = new WaveForm();
+			for(int i = 0; i < waveForm.getSize(); i++){
+				waveForm.setSample(i, (float)Math.sin(i * 2 * Math.PI * (v % 5 + 1) / waveForm.getSize()));
+			}
+
+			final Voice voice = new Voice();
+			voice.waveForm = waveForms[v] = waveForm;
+			voice.increment = increments[v] = WaveForm.getPhaseIncrement(1 + v * 0.37f, 44100);
+			voice.level = levels[v] = 0.5f;
+			voice.multiplier = multipliers[v] = 0.9999f;
+			voice.offset = offsets[v] = 0.00001f;
+			voice.gain = gains[v] = 0.3f;
+			voiceObjects[v] = voice;
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BLOCK_SIZE)
+	public float[] objectLayout(){
+		for(int j = 0; j < BLOCK_SIZE; j++){
+			out[j] = 0;
+		}
+		for(final Voice voice : voiceObjects){
+			float level = voice.level;
+			for(int j = 0; j < BLOCK_SIZE; j++){
+				level = level * voice.multiplier + voice.offset;
+				envBuffer[j] = level * voice.gain;
+			}
+			voice.level = level;
+
+			final WaveForm waveForm = voice.waveForm;
+			final int increment = voice.increment;
+			int phase = voice.phase;
+			for(int j = 0; j < BLOCK_SIZE; j++){
+				out[j] += waveForm.getSampleAtPhase(phase) * envBuffer[j];
+				phase += increment;
+			}
+			voice.phase = phase;
+		}
+		return out;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BLOCK_SIZE)
+	public float[] objectLayoutFused(){
+		for(int j = 0; j < BLOCK_SIZE; j++){
+			out[j] = 0;
+		}
+		for(final Voice voice : voiceObjects){
+			final WaveForm waveForm = voice.waveForm;
+			final int increment = voice.increment;
+			final float multiplier = voice.multiplier;
+			final float offset = voice.offset;
+			final float gain = voice.gain;
+			int phase = voice.phase;
+			float level = voice.level;
+			for(int j = 0; j < BLOCK_SIZE; j++){
+				level = level * multiplier + offset;
+				out[j] += waveForm.getSampleAtPhase(phase) * level * gain;
+				phase += increment;
+			}
+			voice.phase = phase;
+			voice.level = level;
+		}
+		return out;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BLOCK_SIZE)
+	public float[] structureOfArrays(){
+		for(int j = 0; j < BLOCK_SIZE; j++){
+			for(int v = 0; v < voices; v++){
+				levels[v] = levels[v] * multipliers[v] + offsets[v];
+			}
+			for(int v = 0; v < voices; v++){
+				phases[v] += increments[v];
+			}
+			float sum = 0;
+			for(int v = 0; v < voices; v++){
+				sum += waveForms[v].getSampleAtPhase(phases[v]) * levels[v] * gains[v];
+			}
+			out[j] = sum;
+		}
+		return out;
+	}
+
+}
@@ -0,0 +1,115 @@
+/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
+ * 
+ * This file is part of SynThesis.
+ * SynThesis is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package synthesis.logic;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * A {@link WaveTableKernel}, which calculates several frames at once with 
+ * the incubator Vector API. The phases of the frames are calculated in an 
+ * int vector, the samples are gathered from the table and interpolated in 
+ * a float vector with the same number of lanes. The remaining frames are 
+ * calculated by the scalar implementation.
+ * 
+ * This class needs the module jdk.incubator.vector at compile time and at 
+ * runtime (--add-modules jdk.incubator.vector). Otherwise it can't be loaded
+ * and the scalar implementation is used. The vector width can be set with
+ * the system property {@link WaveTableKernel#VECTOR_BITS_PROPERTY}.
+ * 
+ * @author Matthias Birschl
+ *
+ */
+class VectorWaveTableKernel extends WaveTableKernel {
+
+	/**
+	 * The width of the vectors is selected once when the class is loaded. 
+	 * The species have to be constants, otherwise the JIT compiler can't
+	 * translate the vector operations to SIMD instructions.
+	 */
+	private static final VectorShape SHAPE = VectorShape.forBitSize(
+			Integer.getInteger(VECTOR_BITS_PROPERTY, FloatVector.SPECIES_PREFERRED.vectorBitSize()));
+	private static final VectorSpecies<Float> FLOAT_SPECIES = FloatVector.SPECIES_PREFERRED.withShape(SHAPE);
+	private static final VectorSpecies<Integer> INT_SPECIES = IntVector.SPECIES_PREFERRED.withShape(SHAPE);
+	private static final int LANES = FLOAT_SPECIES.length();
+
+	/**
+	 * The offsets of the lanes: 0, 1, 2, ...
+	 */
+	private static final IntVector LANE_INDEXES = IntVector.zero(INT_SPECIES).addIndex(1);
+
+	/**
+	 * The table indexes of the gather instructions. Each thread needs its
+	 * own array, because the notes may be rendered by several threads.
+	 */
+	private final ThreadLocal<int[]> indexes = new ThreadLocal<int[]>() {
+		@Override
+		protected int[] initialValue(){
+			return new int[LANES];
+		}
+	};
+
+	/**
+	 * @throws UnsupportedOperationException If the vectors have less than 4
+	 * lanes. Narrow vectors have no gather instructions, so the vector 
+	 * operations would be much slower than the scalar implementation.
+	 */
+	public VectorWaveTableKernel(){
+		if(LANES < 4){
+			throw new UnsupportedOperationException("Vectors with " + LANES + " lanes are too narrow");
+		}
+	}
+
+	@Override
+	int render(final float[] samples, int phase, final int increment, final float[] envelope, final float[] out, final int frames){
+
+		final int[] index = indexes.get();
+		final IntVector laneOffsets = LANE_INDEXES.mul(increment);
+		final int vectorIncrement = increment * LANES;
+		final int vectorFrames = frames - frames % LANES;
+
+		for(int j = 0; j < vectorFrames; j += LANES){
+
+			final IntVector phases = laneOffsets.add(phase);
+			phases.lanewise(VectorOperators.LSHR, WaveForm.FRACTION_BITS).intoArray(index, 0);
+
+			final FloatVector fraction = ((FloatVector)phases.and(WaveForm.FRACTION_MASK)
+					.convert(VectorOperators.I2F, 0)).mul(WaveForm.FRACTION_SCALE);
+			final FloatVector y1 = FloatVector.fromArray(FLOAT_SPECIES, samples, 0, index, 0);
+			final FloatVector y2 = FloatVector.fromArray(FLOAT_SPECIES, samples, 1, index, 0);
+
+			final FloatVector sample = y1.add(fraction.mul(y2.sub(y1)));
+			final FloatVector env = FloatVector.fromArray(FLOAT_SPECIES, envelope, j);
+			FloatVector.fromArray(FLOAT_SPECIES, out, j).add(sample.mul(env)).intoArray(out, j);
+
+			phase += vectorIncrement;
+		}
+
+		if(vectorFrames < frames){
+			phase = renderFrames(samples, phase, increment, envelope, out, vectorFrames, frames);
+		}
+		return phase;
+	}
+
+	@Override
+	public String toString(){
+		return "vector " + FLOAT_SPECIES.vectorBitSize() + " bit, " + LANES + " lanes";
+	}
+}
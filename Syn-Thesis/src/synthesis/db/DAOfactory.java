@@ -1,35 +1,35 @@
-/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
- * 
- * This file is part of SynThesis.
- * SynThesis is free software: you can redistribute it and/or modify
- * it under the terms of the GNU General Public License as published by
- * the Free Software Foundation, either version 3 of the License, or
- * (at your option) any later version.
- *
- * This program is distributed in the hope that it will be useful,
- * but WITHOUT ANY WARRANTY; without even the implied warranty of
- * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
- * GNU General Public License for more details.
- *
- * You should have received a copy of the GNU General Public License
- * along with this program.  If not, see <http://www.gnu.org/licenses/>.
- */
-package synthesis.db;
-
-/**
- * This class creates objects of thy type {@link GenericDAO} for higher layers.
- * 
- * @author Matthias Birschl
- *
- */
-public class DAOfactory {
-
-	private DAOfactory(){}
-
-	public static GenericDAO createDAO(){
-
-		// return new EclipseLinkDAO();
-		return new HibernateDAO();
-	}
-
-}
+/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
+ * 
+ * This file is part of SynThesis.
+ * SynThesis is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package synthesis.db;
+
+/**
+ * This class creates objects of thy type {@link GenericDAO} for higher layers.
+ * 
+ * @author Matthias Birschl
+ *
+ */
+public class DAOfactory {
+
+	private DAOfactory(){}
+
+	public static GenericDAO createDAO(){
+
+		// return new EclipseLinkDAO();
+		return new HibernateDAO();
+	}
+
+}
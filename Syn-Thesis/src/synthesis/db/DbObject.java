@@ -1,47 +1,47 @@
-/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
- * 
- * This file is part of SynThesis.
- * SynThesis is free software: you can redistribute it and/or modify
- * it under the terms of the GNU General Public License as published by
- * the Free Software Foundation, either version 3 of the License, or
- * (at your option) any later version.
- *
- * This program is distributed in the hope that it will be useful,
- * but WITHOUT ANY WARRANTY; without even the implied warranty of
- * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
- * GNU General Public License for more details.
- *
- * You should have received a copy of the GNU General Public License
- * along with this program.  If not, see <http://www.gnu.org/licenses/>.
- */
-package synthesis.db;
-
-import javax.persistence.GeneratedValue;
-import javax.persistence.Id;
-import javax.persistence.MappedSuperclass;
-
-/**
- * Super class for all classes, which objects are persistent.
- * This class contains no application specific or db-mechanism 
- * specific code
- * 
- * @author Matthias Birschl
- */
-@MappedSuperclass
-public class DbObject {
-
-	@Id
-	@GeneratedValue
-	int id;
-
-	public DbObject(){}
-
-
-	public final int getId(){
-		return id;
-	}
-
-	public void setId(final int id){
-		this.id = id;
-	}
-}
+/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
+ * 
+ * This file is part of SynThesis.
+ * SynThesis is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package synthesis.db;
+
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.MappedSuperclass;
+
+/**
+ * Super class for all classes, which objects are persistent.
+ * This class contains no application specific or db-mechanism 
+ * specific code
+ * 
+ * @author Matthias Birschl
+ */
+@MappedSuperclass
+public class DbObject {
+
+	@Id
+	@GeneratedValue
+	int id;
+
+	public DbObject(){}
+
+
+	public final int getId(){
+		return id;
+	}
+
+	public void setId(final int id){
+		this.id = id;
+	}
+}
@@ -1,138 +1,199 @@
-/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
- * 
- * This file is part of SynThesis.
- * SynThesis is free software: you can redistribute it and/or modify
- * it under the terms of the GNU General Public License as published by
- * the Free Software Foundation, either version 3 of the License, or
- * (at your option) any later version.
- *
- * This program is distributed in the hope that it will be useful,
- * but WITHOUT ANY WARRANTY; without even the implied warranty of
- * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
- * GNU General Public License for more details.
- *
- * You should have received a copy of the GNU General Public License
- * along with this program.  If not, see <http://www.gnu.org/licenses/>.
- */
-package synthesis.gui;
-
-import java.awt.BasicStroke;
-import java.awt.Color;
-import java.awt.Graphics;
-import java.awt.Graphics2D;
-import java.awt.Point;
-import java.awt.RenderingHints;
-import java.awt.geom.Ellipse2D;
-import java.awt.geom.GeneralPath;
-
-import javax.swing.JComponent;
-
-import synthesis.logic.Envelope;
-
-/**
- * This class represents an graphical
- * view of the ADSR parameters of a {@link Envelope}
- * 
- * @author Matthias Birschl
- *
- */
-class ADSRplotter extends JComponent {
-
-
-	private static final long serialVersionUID = 1L;
-	private int attack;
-	private int decay;
-	private int sustain;
-	private int release;
-
-
-	@Override
-	public void paint(final Graphics g){
-		final Graphics2D g2 = (Graphics2D)g;
-		g2.setBackground(Color.black);
-		g2.clearRect(0, 0, getWidth(), getHeight());
-		
-		final Point p1 = new Point(3, getHeight() - 4);
-		final Point pA = new Point(attack + 3, 3);
-		final Point pD = new Point(attack + decay + 3, getHeight() - 4 - sustain);
-		final Point pS = new Point(attack + decay + 23 + 3, getHeight() - 4 - sustain);
-		final Point pR = new Point(attack + decay + 23 + release + 3, getHeight() - 4);
-		if(pD.y < 3){
-			pD.y = 3;
-			pS.y = 3;
-		}
-
-		// Create the path of the envelope
-		final GeneralPath path = new GeneralPath();
-		path.moveTo(p1.x, p1.y);
-		path.lineTo(pA.x, pA.y);
-		path.lineTo(pD.x, pD.y);
-		path.lineTo(pS.x, pS.y);
-		path.lineTo(pR.x, pR.y);
-
-		// paint the fill
-		g2.setColor(new Color(0, 70, 0));
-		g2.fill(path);
-		g2.setStroke(new BasicStroke(3f));
-		g2.drawLine(0, getHeight() - 3, pR.x, getHeight() - 3); 
-
-		drawGrid(g2);
-		
-		// Draw the envelope
-		g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-		g2.setStroke(new BasicStroke(1, BasicStroke.CAP_ROUND, BasicStroke.JOIN_MITER));
-		g2.setColor(Color.green);
-		g2.draw(path);
-
-		// Draw the conjunction points
-		g2.setStroke(new BasicStroke(3));
-		g2.draw(new Ellipse2D.Float(p1.x - 2, p1.y - 2, 4, 4));
-		g2.draw(new Ellipse2D.Float(pA.x - 2, pA.y - 2, 4, 4));
-		g2.draw(new Ellipse2D.Float(pD.x - 2, pD.y - 2, 4, 4));
-		g2.draw(new Ellipse2D.Float(pS.x - 2, pS.y - 2, 4, 4));
-		g2.draw(new Ellipse2D.Float(pR.x - 2, pR.y - 2, 4, 4));
-
-	}
-
-	
-	/**
-	 * Draws the grid in the background of the ADSRplotter
-	 */
-	private void drawGrid(Graphics2D g2){
-
-		g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
-		g2.setColor(Color.GRAY);
-
-		final float dash1[] = { 1.0f, 2f };
-		final BasicStroke dashStroke1 = new BasicStroke(1f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10.0f, dash1, 0.0f);
-
-		final float dash2[] = { 1.0f, 4f };
-		final BasicStroke dashStroke2 = new BasicStroke(1f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10.0f, dash2, 0.0f);
-
-		g2.setStroke(dashStroke1);
-
-		g2.drawLine(0, getHeight() / 2, getWidth(), getHeight() / 2);
-		g2.setStroke(dashStroke2);
-		for(int i = 20; i < getWidth(); i += 20){
-
-			g2.drawLine(i, 0, i, getHeight());
-		}
-	}
-	
-	/**
-	 * Sets the ADSR parameters so this component can
-	 * paint the envelope
-	 * @param attack A value between 0 and 1
-	 * @param decay A value between 0 and 1
-	 * @param sustain A value between 0 and 1
-	 * @param release A value between 0 and 1
-	 */
-	public void setADSR(final float attack, final float decay, final float sustain, final float release){
-
-		this.attack = (int)(attack * (getHeight() - 4));
-		this.decay = (int)(decay * (getHeight() - 4));
-		this.sustain = (int)(sustain * (getHeight() - 4));
-		this.release = (int)(release * (getHeight() - 4));
-		repaint();
-	}
-}
+/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
+ * 
+ * This file is part of SynThesis.
+ * SynThesis is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package synthesis.gui;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Stroke;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.GeneralPath;
+import java.awt.image.BufferedImage;
+
+import javax.swing.JComponent;
+
+import synthesis.logic.Envelope;
+
+/**
+ * This class represents an graphical
+ * view of the ADSR parameters of a {@link Envelope}
+ * 
+ * The grid is painted into an image once per size, and the strokes,
+ * the path and the points are reused, so a repaint while a knob gets
+ * dragged just draws the envelope.
+ * 
+ * @author Matthias Birschl
+ *
+ */
+class ADSRplotter extends JComponent {
+
+
+	private static final long serialVersionUID = 1L;
+
+	private static final Color FILL_COLOR = new Color(0, 70, 0);
+	private static final Stroke BASE_LINE_STROKE = new BasicStroke(3f);
+	private static final Stroke PATH_STROKE = new BasicStroke(1, BasicStroke.CAP_ROUND, BasicStroke.JOIN_MITER);
+	private static final Stroke POINT_STROKE = new BasicStroke(3);
+	private static final Stroke HORIZONTAL_GRID_STROKE = new BasicStroke(1f, BasicStroke.CAP_BUTT, 
+			BasicStroke.JOIN_MITER, 10.0f, new float[]{ 1.0f, 2f }, 0.0f);
+	private static final Stroke VERTICAL_GRID_STROKE = new BasicStroke(1f, BasicStroke.CAP_BUTT, 
+			BasicStroke.JOIN_MITER, 10.0f, new float[]{ 1.0f, 4f }, 0.0f);
+
+	private int attack;
+	private int decay;
+	private int sustain;
+	private int release;
+
+	/**
+	 * The grid on a transparent image, which is painted above the fill
+	 * and below the envelope
+	 */
+	private BufferedImage gridImage;
+
+	private final GeneralPath path = new GeneralPath();
+	private final Ellipse2D.Float point = new Ellipse2D.Float(0, 0, 4, 4);
+
+	// The x and y coordinates of the conjunction points
+	private final int[] pointsX = new int[5];
+	private final int[] pointsY = new int[5];
+
+
+	@Override
+	public void paint(final Graphics g){
+		final Graphics2D g2 = (Graphics2D)g;
+		final int width = getWidth();
+		final int height = getHeight();
+		if(width <= 0 || height <= 0){
+			return;
+		}
+
+		g2.setBackground(Color.black);
+		g2.clearRect(0, 0, width, height);
+
+		calculatePoints(height);
+
+		// Create the path of the envelope
+		path.reset();
+		path.moveTo(pointsX[0], pointsY[0]);
+		for(int i = 1; i < pointsX.length; i++){
+			path.lineTo(pointsX[i], pointsY[i]);
+		}
+
+		// paint the fill
+		g2.setColor(FILL_COLOR);
+		g2.fill(path);
+		g2.setStroke(BASE_LINE_STROKE);
+		g2.drawLine(0, height - 3, pointsX[4], height - 3); 
+
+		if(gridImage == null || gridImage.getWidth() != width || gridImage.getHeight() != height){
+			gridImage = createGridImage(width, height);
+		}
+		g2.drawImage(gridImage, 0, 0, null);
+		
+		// Draw the envelope
+		g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		g2.setStroke(PATH_STROKE);
+		g2.setColor(Color.green);
+		g2.draw(path);
+
+		// Draw the conjunction points
+		g2.setStroke(POINT_STROKE);
+		for(int i = 0; i < pointsX.length; i++){
+			point.x = pointsX[i] - 2;
+			point.y = pointsY[i] - 2;
+			g2.draw(point);
+		}
+
+	}
+
+	/**
+	 * Calculates the start point of the envelope and the end points 
+	 * of the attack, decay, sustain and release phases
+	 */
+	private void calculatePoints(final int height){
+
+		int sustainY = height - 4 - sustain;
+		if(sustainY < 3){
+			sustainY = 3;
+		}
+
+		pointsX[0] = 3;
+		pointsY[0] = height - 4;
+		pointsX[1] = attack + 3;
+		pointsY[1] = 3;
+		pointsX[2] = attack + decay + 3;
+		pointsY[2] = sustainY;
+		pointsX[3] = attack + decay + 23 + 3;
+		pointsY[3] = sustainY;
+		pointsX[4] = attack + decay + 23 + release + 3;
+		pointsY[4] = height - 4;
+	}
+
+	
+	/**
+	 * Draws the grid in the background of the ADSRplotter
+	 */
+	private static BufferedImage createGridImage(final int width, final int height){
+
+		final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		final Graphics2D g2 = image.createGraphics();
+
+		g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+		g2.setColor(Color.GRAY);
+
+		g2.setStroke(HORIZONTAL_GRID_STROKE);
+
+		g2.drawLine(0, height / 2, width, height / 2);
+		g2.setStroke(VERTICAL_GRID_STROKE);
+		for(int i = 20; i < width; i += 20){
+
+			g2.drawLine(i, 0, i, height);
+		}
+
+		g2.dispose();
+		return image;
+	}
+	
+	/**
+	 * Sets the ADSR parameters so this component can
+	 * paint the envelope
+	 * @param attack A value between 0 and 1
+	 * @param decay A value between 0 and 1
+	 * @param sustain A value between 0 and 1
+	 * @param release A value between 0 and 1
+	 */
+	public void setADSR(final float attack, final float decay, final float sustain, final float release){
+
+		final int newAttack = (int)(attack * (getHeight() - 4));
+		final int newDecay = (int)(decay * (getHeight() - 4));
+		final int newSustain = (int)(sustain * (getHeight() - 4));
+		final int newRelease = (int)(release * (getHeight() - 4));
+
+		// The envelope looks the same, if the values are the same in pixels
+		if(newAttack == this.attack && newDecay == this.decay && newSustain == this.sustain && newRelease == this.release){
+			return;
+		}
+
+		this.attack = newAttack;
+		this.decay = newDecay;
+		this.sustain = newSustain;
+		this.release = newRelease;
+		repaint();
+	}
+}
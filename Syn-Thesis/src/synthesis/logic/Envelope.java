@@ -1,269 +1,516 @@
-/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
- * 
- * This file is part of SynThesis.
- * SynThesis is free software: you can redistribute it and/or modify
- * it under the terms of the GNU General Public License as published by
- * the Free Software Foundation, either version 3 of the License, or
- * (at your option) any later version.
- *
- * This program is distributed in the hope that it will be useful,
- * but WITHOUT ANY WARRANTY; without even the implied warranty of
- * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
- * GNU General Public License for more details.
- *
- * You should have received a copy of the GNU General Public License
- * along with this program.  If not, see <http://www.gnu.org/licenses/>.
- */
-package synthesis.logic;
-
-import java.util.Observable;
-
-/**
- * This class represents an ADSR-envelope
- * 
- * @author Matthias Birschl
- * 
- */
-public class Envelope extends Observable {
-
-	private int attack = 10;
-	private int decay = 44;
-	private float sustain = 0.3f;
-	private int release = 200;
-
-	// private Logger log = LoggerFactory.getLogger(Envelope.class);
-
-	/**
-	 * The envelope values for the attack and decay phases. The values are
-	 * between 0 and 1
-	 */
-	private float[] envelopeAD;
-
-	/**
-	 * The envelope values for the release phase. The values are between 0 and 1
-	 */
-	private float[] envelopeR;
-
-	private final float sampleRate = VST_Adapter.getCurrentSampleRate();
-
-	/**
-	 * Calculates the envelope with the given parameters.
-	 * 
-	 * @param attack
-	 *            Attack time in ms
-	 * @param decay
-	 *            Decay time in ms
-	 * @param sustain
-	 *            The sustain level as value between 0 und 1
-	 * @param release
-	 *            Release time in ms
-	 */
-	public void setADSR(final int attack, final int decay, final float sustain, final int release){
-
-		setSustain(sustain); // sustain needs to be set before decay and release
-		setAD(attack, decay);
-		setRelease(release);
-	}
-
-	public void setAD(final int attack, final int decay){
-
-		this.attack = attack;
-		this.decay = decay;
-
-		int attackInSamples = attack * (int)(sampleRate / 1000);
-		int decayInSamples = decay * (int)(sampleRate / 1000);
-
-		if(attackInSamples == 0){
-			attackInSamples = 1;
-		}
-		// prevents klick sounds if the decay time is nearly zero
-		if(decayInSamples < 40){
-			decayInSamples = 40;
-		}
-
-		envelopeAD = new float[attackInSamples + decayInSamples];
-
-		// Calculate the attack phase
-		float step = 1f / attackInSamples;
-		envelopeAD[0] = step;
-		for(int i = 1; i < attackInSamples; i++){
-			envelopeAD[i] = envelopeAD[i - 1] + step;
-		}
-
-		// calculate the decay phase
-		step = (1f - sustain) / decayInSamples;
-		for(int i = attackInSamples; i < attackInSamples + decayInSamples; i++){
-			envelopeAD[i] = envelopeAD[i - 1] - step;
-		}
-	}
-
-	/**
-	 * Liefert den Wert innerhalb der Attack- und Decay-Phase der Huellkurve an
-	 * der uebergebenen position. Wenn die position groesser ist als die laenge
-	 * der Attack- und Decayphase, dann wird der susatin Wert zurueckgegeben
-	 * 
-	 * @param position
-	 * @return Huellkurven Wert zwischen 0 und 1
-	 */
-	public float getValueAD(final int position){
-		if(position >= envelopeAD.length){
-			return sustain;
-		}
-		return envelopeAD[position];
-	}
-
-	/**
-	 * Liefert den Wert innerhalb Release-Phase der Huellkurve an der
-	 * uebergebenen position. Ist die uebergebene Position groesser als die
-	 * R-Huellkurve dann wird 0 zurueckgegeben
-	 * 
-	 * @param position
-	 * @return Huellkurven Wert zwischen 0 und 1
-	 */
-	public float getValueR(final int position){
-		if(position < envelopeR.length){
-			return envelopeR[position];
-		}
-		return 0;
-	}
-
-	public int getSizeAD(){
-
-		return envelopeAD.length;
-	}
-
-	public int getSizeR(){
-
-		return envelopeR.length;
-	}
-
-	public int getSize(){
-
-		return envelopeAD.length + envelopeR.length;
-	}
-
-	public float getSustainLevel(){
-
-		return sustain;
-	}
-
-	/**
-	 * Recalculates the attack phase of the envelope with the given value
-	 * 
-	 * @param attack
-	 *            The attack time in ms
-	 */
-	public void setAttack(final int attack){
-		setAD(attack, this.decay);
-	}
-
-	/**
-	 * Recalculates the decay phase of the envelope with the given value
-	 * 
-	 * @param decay
-	 *            The Decay time in ms
-	 */
-	public void setDecay(final int decay){
-		setAD(this.attack, decay);
-	}
-
-	/**
-	 * Sets the sustain level of the envelope.. Attention! It recalculates the
-	 * decay and release-phase
-	 * 
-	 * @param sustain
-	 *            The sustain level as value between 0 and 1
-	 */
-	public void setSustain(final float sustain){
-		this.sustain = sustain;
-		setRelease(release);
-		setDecay(decay);
-
-	}
-
-	/**
-	 * Recalculates the release phase of the envelope with the given value
-	 * 
-	 * @param release
-	 *            The release time in ms
-	 */
-	public void setRelease(final int release){
-
-		this.release = release;
-		int releaseInSamples = release * (int)(sampleRate / 1000);
-
-		if(releaseInSamples < 40){
-			releaseInSamples = 40;
-		}
-		if(sustain == 0){
-			releaseInSamples = 1;
-		}
-
-		envelopeR = new float[releaseInSamples];
-		float step = 1;
-		if(releaseInSamples != 0){
-			step = sustain / releaseInSamples;
-		}
-
-		envelopeR[0] = sustain;
-		for(int i = 1; i < releaseInSamples; i++){
-			envelopeR[i] = envelopeR[i - 1] - step;
-		}
-
-	}
-
-	/**
-	 * Returns the attack time
-	 * 
-	 * @return Attack time in ms
-	 */
-	public int getAttack(){
-		return attack;
-	}
-
-	/**
-	 * Returns the decay time
-	 * 
-	 * @return Decay time in ms
-	 */
-	public int getDecay(){
-		return decay;
-	}
-
-	/**
-	 * Returns the sustain level
-	 * 
-	 * @return Sustain level as value between 0 and 1
-	 */
-	public float getSustain(){
-		return sustain;
-	}
-
-	/**
-	 * Returns the release time
-	 * 
-	 * @return Release time in ms
-	 */
-	public int getRelease(){
-		return release;
-	}
-
-	@Override
-	public void setChanged(){
-		super.setChanged();
-		notifyObservers();
-	}
-
-	/**
-	 * Returns a deep copy from an object of this class.
-	 * 
-	 * @return A new Object with same values as the object from which this is
-	 *         called
-	 */
-	public Envelope copy(){
-		final Envelope newEnv = new Envelope();
-		newEnv.setADSR(attack, decay, sustain, release);
-		return newEnv;
-	}
-
-}
+/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
+ * 
+ * This file is part of SynThesis.
+ * SynThesis is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package synthesis.logic;
+
+
+import synthesis.util.Constants;
+
+/**
+ * This class represents an ADSR-envelope. It contains just the parameters
+ * of the envelope and the coefficients, which are derived from them. The
+ * envelope values are calculated by an {@link EnvelopeGenerator} for each
+ * note while the note is playing, so the memory doesn't depend on
+ * the length of the envelope.
+ * 
+ * If the envelope belongs to a {@link Synthesizer}, the changes of the 
+ * parameters get to the audio thread through a {@link ParameterQueue}.
+ * The audio thread keeps its own copy of the parameters and calculates 
+ * the coefficients from them, so it never sees a half-changed envelope.
+ * 
+ * @author Matthias Birschl
+ * 
+ */
+public class Envelope extends ObservableModel {
+
+	private int attack = 10;
+	private int decay = 44;
+	private float sustain = 0.3f;
+	private int release = 200;
+
+	/**
+	 * If true, the decay and release phases are exponential curves,
+	 * otherwise all phases are linear
+	 */
+	private boolean exponential = false;
+
+	// private Logger log = LoggerFactory.getLogger(Envelope.class);
+
+	/**
+	 * The minimum length of the decay and release phases in samples.
+	 * Prevents klick sounds if the time is nearly zero
+	 */
+	private static final int MIN_FADE_SAMPLES = 40;
+
+	/**
+	 * Determines how close the exponential curves come to their target 
+	 * level at the end of their phase. The curves aim at a level this amount
+	 * beyond the target, so that they reach it in a finite time.
+	 */
+	private static final double EXP_OVERSHOOT = 0.001;
+
+	// The coefficients of the phases. Each envelope value is calculated by
+	// value = previousValue * multiplier + offset
+	// They are doubles, because the steps of phases with a length of many 
+	// seconds are too small for the precision of a float near 1
+	private double attackOffset;
+	private double decayMultiplier;
+	private double decayOffset;
+	private double releaseMultiplier;
+	private double releaseOffset;
+
+	private float sampleRate = VST_Adapter.getCurrentSampleRate();
+
+	// The numbers of the parameters in the ParameterQueue
+	static final int ATTACK = 0;
+	static final int DECAY = 1;
+	static final int SUSTAIN = 2;
+	static final int RELEASE = 3;
+	static final int EXPONENTIAL = 4;
+	static final int SAMPLE_RATE = 5;
+	static final int NUM_PARAMETERS = 6;
+
+	/**
+	 * The queue, through which the changes get to the audio thread. 
+	 * If null, the changes are applied at once.
+	 */
+	private ParameterQueue changes = null;
+
+	/**
+	 * The number of the first parameter of this envelope in the queue
+	 */
+	private int firstParameter = 0;
+
+	// The parameters, from which the coefficients are calculated. 
+	// Just used by the audio thread, if this envelope has a queue.
+	private int currentAttack = attack;
+	private int currentDecay = decay;
+	private float currentSustain = sustain;
+	private int currentRelease = release;
+	private boolean currentExponential = exponential;
+	private float currentSampleRate = sampleRate;
+
+	/**
+	 * The sustain level of the audio thread, which follows a change
+	 * within {@link Constants#PARAMETER_RAMP_TIME} ms, so an automation 
+	 * of the sustain level doesn't cause zipper noise
+	 */
+	private final ParameterRamp sustainLevel = new ParameterRamp(sustain);
+
+	/**
+	 * True, if the audio thread has to recalculate the coefficients
+	 */
+	private boolean isChanged = false;
+
+	public Envelope(){
+		calculateCoefficients();
+	}
+
+	/**
+	 * Calculates the envelope with the given parameters.
+	 * 
+	 * @param attack
+	 *            Attack time in ms
+	 * @param decay
+	 *            Decay time in ms
+	 * @param sustain
+	 *            The sustain level as value between 0 und 1
+	 * @param release
+	 *            Release time in ms
+	 */
+	public void setADSR(final int attack, final int decay, final float sustain, final int release){
+
+		this.attack = attack;
+		this.decay = decay;
+		this.sustain = flushDenormal(sustain);
+		this.release = release;
+		publish();
+	}
+
+	public void setAD(final int attack, final int decay){
+
+		this.attack = attack;
+		this.decay = decay;
+		publish();
+	}
+
+	/**
+	 * Recalculates the coefficients of all phases for the given sample rate,
+	 * so that the times of the phases stay the same
+	 * @param sampleRate The new sample rate in Hz
+	 */
+	void setSampleRate(final float sampleRate){
+		this.sampleRate = sampleRate;
+		publish();
+	}
+
+	/**
+	 * Lets the changes of this envelope get to the audio thread through 
+	 * the given queue
+	 * @param changes The queue of the synthesizer
+	 * @param firstParameter The number of the first parameter of 
+	 * this envelope in the queue
+	 */
+	void setParameterQueue(final ParameterQueue changes, final int firstParameter){
+		this.firstParameter = firstParameter;
+		this.changes = changes;
+	}
+
+	/**
+	 * Passes all parameters to the audio thread at once. If the queue is 
+	 * full, the audio thread reads the parameters again with {@link #resync()}.
+	 */
+	private void publish(){
+
+		final ParameterQueue queue = changes;
+		if(queue == null){
+			resync();
+			sustainLevel.reset(sustain);
+			update();
+			return;
+		}
+
+		final int position = queue.reserve(NUM_PARAMETERS);
+		if(position < 0){
+			return;
+		}
+		queue.set(position + ATTACK, firstParameter + ATTACK, attack);
+		queue.set(position + DECAY, firstParameter + DECAY, decay);
+		queue.set(position + SUSTAIN, firstParameter + SUSTAIN, sustain);
+		queue.set(position + RELEASE, firstParameter + RELEASE, release);
+		queue.set(position + EXPONENTIAL, firstParameter + EXPONENTIAL, exponential ? 1 : 0);
+		queue.set(position + SAMPLE_RATE, firstParameter + SAMPLE_RATE, sampleRate);
+		queue.publish(position, NUM_PARAMETERS);
+	}
+
+	/**
+	 * Sets one parameter of the audio thread. The coefficients get 
+	 * recalculated with {@link #update()}.
+	 * @param parameter The parameter number without the offset of 
+	 * this envelope, e.g. {@link #ATTACK}
+	 * @param value The new value
+	 */
+	void apply(final int parameter, final float value){
+		switch(parameter){
+			case ATTACK:
+				currentAttack = (int)value;
+				break;
+			case DECAY:
+				currentDecay = (int)value;
+				break;
+			case SUSTAIN:
+				currentSustain = value;
+				sustainLevel.rampTo(value);
+				break;
+			case RELEASE:
+				currentRelease = (int)value;
+				break;
+			case EXPONENTIAL:
+				currentExponential = value != 0;
+				break;
+			case SAMPLE_RATE:
+				currentSampleRate = value;
+				break;
+		}
+		isChanged = true;
+	}
+
+	/**
+	 * Copies all parameters to the parameters of the audio thread. This is 
+	 * needed, if changes were dropped because the queue was full.
+	 */
+	void resync(){
+		currentAttack = attack;
+		currentDecay = decay;
+		currentSustain = sustain;
+		sustainLevel.rampTo(sustain);
+		currentRelease = release;
+		currentExponential = exponential;
+		currentSampleRate = sampleRate;
+		isChanged = true;
+	}
+
+	/**
+	 * Recalculates the coefficients, if parameters were changed 
+	 * since the last call
+	 */
+	void update(){
+		if(isChanged){
+			isChanged = false;
+			calculateCoefficients();
+		}
+	}
+
+	/**
+	 * Advances the ramp of the sustain level to the end of the next block.
+	 * Called by the audio thread before each block.
+	 * @param frames The number of frames of the block
+	 */
+	void advance(final int frames){
+		sustainLevel.advance(frames);
+	}
+
+	/**
+	 * Calculates the coefficients of all phases for the 
+	 * parameters of the audio thread
+	 */
+	private void calculateCoefficients(){
+
+		final float sampleRate = currentSampleRate;
+		final float sustain = currentSustain;
+		int attackInSamples = currentAttack * (int)(sampleRate / 1000);
+		int decayInSamples = currentDecay * (int)(sampleRate / 1000);
+		int releaseInSamples = currentRelease * (int)(sampleRate / 1000);
+
+		if(attackInSamples == 0){
+			attackInSamples = 1;
+		}
+		if(decayInSamples < MIN_FADE_SAMPLES){
+			decayInSamples = MIN_FADE_SAMPLES;
+		}
+		if(releaseInSamples < MIN_FADE_SAMPLES){
+			releaseInSamples = MIN_FADE_SAMPLES;
+		}
+
+		attackOffset = 1.0 / attackInSamples;
+
+		if(currentExponential){
+			decayMultiplier = getExpMultiplier(1 - sustain, decayInSamples);
+			decayOffset = (sustain - EXP_OVERSHOOT) * (1 - decayMultiplier);
+			releaseMultiplier = getExpMultiplier(1, releaseInSamples);
+			releaseOffset = -EXP_OVERSHOOT * (1 - releaseMultiplier);
+		}else{
+			decayMultiplier = 1;
+			decayOffset = -(1.0 - sustain) / decayInSamples;
+			releaseMultiplier = 1;
+			// Gets scaled with the level at the start of the release phase
+			releaseOffset = -1.0 / releaseInSamples;
+		}
+	}
+
+	/**
+	 * Returns zero for levels below {@link Constants#DENORMAL_THRESHOLD},
+	 * so that a held note doesn't calculate with denormal numbers
+	 */
+	private static float flushDenormal(final float level){
+		return level < Constants.DENORMAL_THRESHOLD ? 0 : level;
+	}
+
+	/**
+	 * Returns the multiplier of an exponential curve, which falls
+	 * the given distance within the given number of samples
+	 */
+	private static double getExpMultiplier(final double distance, final int samples){
+		return Math.exp(-Math.log((distance + EXP_OVERSHOOT) / EXP_OVERSHOOT) / samples);
+	}
+
+	/**
+	 * Converts the value of a knob or an automated parameter to a time.
+	 * The conversion uses a cubic curve, so that short times can still be
+	 * adjusted precisely although the maximum time is some seconds.
+	 * @param value A value between 0 and 1
+	 * @param maxTime The time in ms for the value 1
+	 * @return The time in ms
+	 * @see #toValue(int, int)
+	 */
+	public static int toTime(final float value, final int maxTime){
+		return Math.round(value * value * value * maxTime);
+	}
+
+	/**
+	 * Converts a time to the value of a knob or an automated parameter.
+	 * @param time The time in ms
+	 * @param maxTime The time in ms for the value 1
+	 * @return A value between 0 and 1
+	 * @see #toTime(float, int)
+	 */
+	public static float toValue(final int time, final int maxTime){
+		return (float)Math.cbrt((float)time / (float)maxTime);
+	}
+
+	/**
+	 * Returns the value, that gets added to the envelope value per sample
+	 * within the attack phase
+	 */
+	double getAttackOffset(){
+		return attackOffset;
+	}
+
+	/**
+	 * Returns the value, with which the envelope value gets multiplied per 
+	 * sample within the decay phase
+	 */
+	double getDecayMultiplier(){
+		return decayMultiplier;
+	}
+
+	/**
+	 * Returns the value, that gets added to the envelope value per sample
+	 * within the decay phase
+	 */
+	double getDecayOffset(){
+		return decayOffset;
+	}
+
+	/**
+	 * Returns the value, with which the envelope value gets multiplied per 
+	 * sample within the release phase
+	 */
+	double getReleaseMultiplier(){
+		return releaseMultiplier;
+	}
+
+	/**
+	 * Returns the value, that gets added to the envelope value per sample
+	 * within the release phase. For linear envelopes this value needs to be
+	 * multiplied with the envelope value at the start of the release phase.
+	 */
+	double getReleaseOffset(){
+		return releaseOffset;
+	}
+
+	/**
+	 * Returns the sustain level, that is used by the audio thread, 
+	 * at the end of the current block
+	 * @see #advance(int)
+	 */
+	float getSustainLevel(){
+		return sustainLevel.getValue();
+	}
+
+	/**
+	 * Returns true, if the decay and release phases of the audio
+	 * thread are exponential curves
+	 */
+	boolean hasExponentialCurves(){
+		return currentExponential;
+	}
+
+	/**
+	 * Recalculates the attack phase of the envelope with the given value
+	 * 
+	 * @param attack
+	 *            The attack time in ms
+	 */
+	public void setAttack(final int attack){
+		setAD(attack, this.decay);
+	}
+
+	/**
+	 * Recalculates the decay phase of the envelope with the given value
+	 * 
+	 * @param decay
+	 *            The Decay time in ms
+	 */
+	public void setDecay(final int decay){
+		setAD(this.attack, decay);
+	}
+
+	/**
+	 * Sets the sustain level of the envelope.. Attention! It recalculates the
+	 * decay and release-phase
+	 * 
+	 * @param sustain
+	 *            The sustain level as value between 0 and 1
+	 */
+	public void setSustain(final float sustain){
+		this.sustain = flushDenormal(sustain);
+		publish();
+
+	}
+
+	/**
+	 * Recalculates the release phase of the envelope with the given value
+	 * 
+	 * @param release
+	 *            The release time in ms
+	 */
+	public void setRelease(final int release){
+
+		this.release = release;
+		publish();
+	}
+
+	/**
+	 * Sets the shape of the decay and release phases
+	 * 
+	 * @param exponential
+	 *            True for exponential curves, false for linear ramps
+	 */
+	public void setExponential(final boolean exponential){
+		this.exponential = exponential;
+		publish();
+	}
+
+	/**
+	 * Returns true, if the decay and release phases are exponential curves
+	 */
+	public boolean isExponential(){
+		return exponential;
+	}
+
+	/**
+	 * Returns the attack time
+	 * 
+	 * @return Attack time in ms
+	 */
+	public int getAttack(){
+		return attack;
+	}
+
+	/**
+	 * Returns the decay time
+	 * 
+	 * @return Decay time in ms
+	 */
+	public int getDecay(){
+		return decay;
+	}
+
+	/**
+	 * Returns the sustain level
+	 * 
+	 * @return Sustain level as value between 0 and 1
+	 */
+	public float getSustain(){
+		return sustain;
+	}
+
+	/**
+	 * Returns the release time
+	 * 
+	 * @return Release time in ms
+	 */
+	public int getRelease(){
+		return release;
+	}
+
+
+	/**
+	 * Returns a deep copy from an object of this class.
+	 * 
+	 * @return A new Object with same values as the object from which this is
+	 *         called
+	 */
+	public Envelope copy(){
+		final Envelope newEnv = new Envelope();
+		newEnv.setSampleRate(sampleRate);
+		newEnv.setExponential(exponential);
+		newEnv.setADSR(attack, decay, sustain, release);
+		return newEnv;
+	}
+
+}
@@ -0,0 +1,212 @@
+/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
+ * 
+ * This file is part of SynThesis.
+ * SynThesis is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package synthesis.logic;
+
+import synthesis.util.Constants;
+
+/**
+ * Calculates the values of an {@link Envelope} for one note while the note
+ * is playing. Each value is calculated from the previous one with one
+ * multiplication and one addition, so no tables of envelope values are needed.
+ * 
+ * @author Matthias Birschl
+ */
+class EnvelopeGenerator {
+
+	private static final int ATTACK = 0;
+	private static final int DECAY = 1;
+	private static final int SUSTAIN = 2;
+	private static final int RELEASE = 3;
+	private static final int IDLE = 4;
+
+	private int phase = IDLE;
+
+	/**
+	 * The current envelope value. It is a double, so that the tiny steps of
+	 * long linear phases don't get lost when they are added to a value near 1.
+	 */
+	private double level = 0;
+
+	/**
+	 * The level at the start of the release phase, which scales
+	 * the linear release ramp
+	 */
+	private double releaseStartLevel = 0;
+
+	/**
+	 * Buffer for the calculation of single values
+	 */
+	private final float[] singleValue = new float[1];
+
+	/**
+	 * Starts the envelope from zero with the attack phase
+	 */
+	public void start(){
+		phase = ATTACK;
+		level = 0;
+	}
+
+	/**
+	 * Starts the attack phase from the current level, so that 
+	 * a retriggered note doesn't jump back to zero
+	 */
+	public void retrigger(){
+		phase = ATTACK;
+	}
+
+	/**
+	 * Starts the release phase from the current level
+	 */
+	public void release(){
+		if(level <= Constants.DENORMAL_THRESHOLD){
+			level = 0;
+			phase = IDLE;
+		}else if(phase != IDLE){
+			phase = RELEASE;
+			releaseStartLevel = level;
+		}
+	}
+
+	/**
+	 * Returns true, if the release phase has ended
+	 */
+	public boolean isFinished(){
+		return phase == IDLE;
+	}
+
+	/**
+	 * Returns true, if the envelope is in the release phase or has finished,
+	 * so its level can't rise anymore
+	 */
+	public boolean isReleased(){
+		return phase == RELEASE || phase == IDLE;
+	}
+
+	/**
+	 * Returns the current envelope value
+	 * @return A value between 0 and 1
+	 */
+	public float getLevel(){
+		return (float)level;
+	}
+
+	/**
+	 * Calculates the next envelope value
+	 * @param envelope The parameters of the envelope
+	 * @return A value between 0 and 1
+	 */
+	public float next(final Envelope envelope){
+		process(envelope, singleValue, 1, 1);
+		return singleValue[0];
+	}
+
+	/**
+	 * Calculates the next envelope values multiplied with the given gain
+	 * @param envelope The parameters of the envelope
+	 * @param buffer The buffer for the envelope values
+	 * @param frames The number of values to calculate
+	 * @param gain The factor for all values
+	 */
+	public void process(final Envelope envelope, final float[] buffer, final int frames, final float gain){
+
+		int j = 0;
+		while(j < frames){
+
+			double multiplier;
+			double offset;
+			double target;
+
+			switch(phase){
+				case ATTACK:
+					offset = envelope.getAttackOffset();
+					for(; j < frames; j++){
+						level += offset;
+						if(level >= 1){
+							level = 1;
+							buffer[j++] = (float)(level * gain);
+							phase = DECAY;
+							break;
+						}
+						buffer[j] = (float)(level * gain);
+					}
+					continue;
+				case DECAY:
+					multiplier = envelope.getDecayMultiplier();
+					offset = envelope.getDecayOffset();
+					target = envelope.getSustainLevel();
+					for(; j < frames; j++){
+						if(level <= target){
+							// The sustain level has risen above the level, e.g. by an 
+							// automation, so the sustain phase glides up to it
+							phase = SUSTAIN;
+							break;
+						}
+						level = level * multiplier + offset;
+						if(level <= target){
+							level = target;
+							buffer[j++] = (float)(level * gain);
+							phase = SUSTAIN;
+							break;
+						}
+						buffer[j] = (float)(level * gain);
+					}
+					continue;
+				case SUSTAIN:
+					target = envelope.getSustainLevel();
+					if(level != target){
+						// The sustain level follows a ramp, because it was changed, 
+						// e.g. by an automation. The level glides to the value of 
+						// the ramp at the end of this block.
+						offset = (target - level) / (frames - j);
+						for(; j < frames; j++){
+							level += offset;
+							buffer[j] = (float)(level * gain);
+						}
+						level = target;
+						continue;
+					}
+					break;
+				case RELEASE:
+					multiplier = envelope.getReleaseMultiplier();
+					offset = envelope.getReleaseOffset();
+					if(!envelope.hasExponentialCurves()){
+						offset *= releaseStartLevel;
+					}
+					for(; j < frames; j++){
+						level = level * multiplier + offset;
+						if(level <= Constants.DENORMAL_THRESHOLD){
+							level = 0;
+							buffer[j++] = 0;
+							phase = IDLE;
+							break;
+						}
+						buffer[j] = (float)(level * gain);
+					}
+					continue;
+				default:
+					level = 0;
+					break;
+			}
+
+			// The level is constant in the sustain and idle phases
+			final float value = (float)(level * gain);
+			for(; j < frames; j++){
+				buffer[j] = value;
+			}
+		}
+	}
+}
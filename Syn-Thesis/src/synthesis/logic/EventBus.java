@@ -0,0 +1,97 @@
+/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
+ * 
+ * This file is part of SynThesis.
+ * SynThesis is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package synthesis.logic;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.swing.Timer;
+
+import synthesis.util.Constants;
+
+/**
+ * Delivers the changes of the {@link ObservableModel}s to their observers
+ * on the event dispatch thread. The threads, that change the models, never
+ * wait for the views and never allocate, so the audio thread can post 
+ * changes. A timer polls the changed models with 
+ * {@link Constants#GUI_FRAME_RATE}, so each model is delivered at most 
+ * once per frame, no matter how often it was changed.
+ * 
+ * @author Matthias Birschl
+ */
+final class EventBus {
+
+	/**
+	 * The last model, that has changed since the last delivery. The models
+	 * are linked by {@link ObservableModel#nextPosted}, so posting a model 
+	 * doesn't need a node of a queue.
+	 */
+	private static final AtomicReference<ObservableModel> postedModels = new AtomicReference<ObservableModel>();
+
+	private static final Timer timer = new Timer(1000 / Constants.GUI_FRAME_RATE, new ActionListener(){
+		@Override
+		public void actionPerformed(final ActionEvent e){
+			deliver();
+		}
+	});
+
+	static{
+		timer.start();
+	}
+
+	private EventBus(){
+	}
+
+	/**
+	 * Schedules the delivery of the given model. The model must not be 
+	 * posted again until it is delivered.
+	 */
+	static void post(final ObservableModel model){
+		ObservableModel last;
+		do{
+			last = postedModels.get();
+			model.nextPosted = last;
+		}while(!postedModels.compareAndSet(last, model));
+	}
+
+	/**
+	 * Notifies the observers of all changed models in the order, in 
+	 * which they were posted
+	 */
+	private static void deliver(){
+
+		ObservableModel model = postedModels.getAndSet(null);
+		ObservableModel first = null;
+		while(model != null){
+			final ObservableModel previous = model.nextPosted;
+			model.nextPosted = first;
+			first = model;
+			model = previous;
+		}
+
+		// A model may be posted again, as soon as its delivery begins, 
+		// so its link is read before
+		model = first;
+		while(model != null){
+			final ObservableModel next = model.nextPosted;
+			model.nextPosted = null;
+			model.deliver();
+			model = next;
+		}
+	}
+}
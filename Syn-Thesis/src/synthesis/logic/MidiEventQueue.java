@@ -0,0 +1,166 @@
+/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
+ * 
+ * This file is part of SynThesis.
+ * SynThesis is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package synthesis.logic;
+
+/**
+ * A lock-free queue for MIDI events between one thread, that receives the
+ * events (the producer) and the audio thread (the consumer). 
+ * The events are ordered by their delta frames, which is the position 
+ * of the event within the next block, that gets rendered.
+ * 
+ * The producer adds the events of one block with {@link #add(int, int, int, int)}
+ * and makes them visible to the consumer with {@link #publish()}. The host
+ * may deliver the events of one block in several calls, so the consumer 
+ * sorts all published events with {@link #sort()} before it reads them.
+ * 
+ * @author Matthias Birschl
+ */
+public class MidiEventQueue {
+
+	/**
+	 * The maximum number of events in the queue. Must be a power of two.
+	 */
+	private static final int CAPACITY = 1024;
+	private static final int MASK = CAPACITY - 1;
+
+	private final int[] deltaFrames = new int[CAPACITY];
+
+	/**
+	 * The MIDI messages. Each element contains the status byte and 
+	 * the two data bytes of one message
+	 */
+	private final int[] messages = new int[CAPACITY];
+
+	/**
+	 * The index of the next event, that is read by the consumer
+	 */
+	private volatile int head = 0;
+
+	/**
+	 * The index after the last event, that is visible to the consumer
+	 */
+	private volatile int tail = 0;
+
+	/**
+	 * The index after the last event, that was added by the producer.
+	 * Just used by the producer.
+	 */
+	private int pendingTail = 0;
+
+	/**
+	 * Adds a MIDI event to the queue. The event is not visible to the
+	 * consumer until {@link #publish()} gets called.
+	 * @param deltaFrame The position of the event within the next block
+	 * @param status The status byte of the MIDI message
+	 * @param data1 The first data byte of the MIDI message
+	 * @param data2 The second data byte of the MIDI message
+	 * @return false if the queue is full and the event was dropped
+	 */
+	public boolean add(final int deltaFrame, final int status, final int data1, final int data2){
+
+		if(pendingTail - head >= CAPACITY){
+			return false;
+		}
+
+		final int message = (status & 0xff) << 16 | (data1 & 0xff) << 8 | data2 & 0xff;
+
+		deltaFrames[pendingTail & MASK] = deltaFrame;
+		messages[pendingTail & MASK] = message;
+		pendingTail++;
+
+		return true;
+	}
+
+	/**
+	 * Makes all added events visible to the consumer
+	 */
+	public void publish(){
+		tail = pendingTail;
+	}
+
+	/**
+	 * Sorts all published events by their delta frames. Events with the 
+	 * same delta frame keep their order. Called by the consumer before it 
+	 * reads the events of a block. The producer doesn't touch the published
+	 * events, so they can be sorted in place.
+	 * @return The number of sorted events, which the consumer should read
+	 * for the block. Events, that get published later, belong to the next block.
+	 */
+	public int sort(){
+
+		final int first = head;
+		final int last = tail;
+
+		// Insertion sort, because the events of each call of the 
+		// producer are mostly in order already
+		for(int i = first + 1; i != last; i++){
+			final int deltaFrame = deltaFrames[i & MASK];
+			final int message = messages[i & MASK];
+			int j = i;
+			while(j != first && deltaFrames[(j - 1) & MASK] > deltaFrame){
+				deltaFrames[j & MASK] = deltaFrames[(j - 1) & MASK];
+				messages[j & MASK] = messages[(j - 1) & MASK];
+				j--;
+			}
+			deltaFrames[j & MASK] = deltaFrame;
+			messages[j & MASK] = message;
+		}
+		return last - first;
+	}
+
+	/**
+	 * Returns true, if no published event is in the queue
+	 */
+	public boolean isEmpty(){
+		return head == tail;
+	}
+
+	/**
+	 * Returns the delta frame of the next event. The queue must not be empty.
+	 */
+	public int peekDeltaFrame(){
+		return deltaFrames[head & MASK];
+	}
+
+	/**
+	 * Returns the status byte of the next event. The queue must not be empty.
+	 */
+	public int peekStatus(){
+		return messages[head & MASK] >> 16;
+	}
+
+	/**
+	 * Returns the first data byte of the next event. The queue must not be empty.
+	 */
+	public int peekData1(){
+		return messages[head & MASK] >> 8 & 0xff;
+	}
+
+	/**
+	 * Returns the second data byte of the next event. The queue must not be empty.
+	 */
+	public int peekData2(){
+		return messages[head & MASK] & 0xff;
+	}
+
+	/**
+	 * Removes the next event from the queue. The queue must not be empty.
+	 */
+	public void remove(){
+		head++;
+	}
+}
@@ -1,214 +1,599 @@
-/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
- * 
- * This file is part of SynThesis.
- * SynThesis is free software: you can redistribute it and/or modify
- * it under the terms of the GNU General Public License as published by
- * the Free Software Foundation, either version 3 of the License, or
- * (at your option) any later version.
- *
- * This program is distributed in the hope that it will be useful,
- * but WITHOUT ANY WARRANTY; without even the implied warranty of
- * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
- * GNU General Public License for more details.
- *
- * You should have received a copy of the GNU General Public License
- * along with this program.  If not, see <http://www.gnu.org/licenses/>.
- */
-package synthesis.logic;
-
-import synthesis.util.Constants;
-import synthesis.util.MIDI;
-
-/**
- * Represents one note, that is played by the synthesizer.
- * @author Matthias Birschl
- */
-class Note {
-
-
-	private final float[] samplePositions = { 0, 0, 0, 0 };
-
-	private final int midiNote;
-	private float velocity;
-	private float tmpVelocity;
-	
-	private boolean isReleasing = false;
-	private int envelopePos = 0;
-	public boolean isFinihed;
-
-	private final float step;
-	private final int waveFormSize;
-	private final Synthesizer synth;
-
-	private float value = 0;
-
-	/**
-	 * If true, then this note just plays until the amplitude
-	 * reaches an level near to zero. After this, this note
-	 * can be reset and play again 
-	 */
-	private boolean phaseFadeOut = false; 
-
-//	private static Logger log = LoggerFactory.getLogger(Note.class);
-
-	/**
-	 * Creates a new note, that can be played by the synthesizer
-	 * @param midiNote The midi value of the note
-	 * @param velocity The velocity of the note
-	 * @param synth The synthesizer, that plays this note
-	 */
-	public Note(final int midiNote, final float velocity, final Synthesizer synth){
-		this.midiNote = midiNote;
-		this.synth = synth;
-		this.velocity = velocity;
-		
-		final float lowestFreq = MIDI.getFreq(0);
-		step = MIDI.getFreq(midiNote) / lowestFreq;
-		waveFormSize = synth.getOscillator(0).getWaveForm().getSize(); 
-	}
-
-	/**
-	 * Returns the next sample of this note.
-	 * The calculation of the sample includes the settings of
-	 * all active oscillators (including the envelopes) 
-	 * @return A sample as a value between -1 and 1
-	 */
-	public float getNextSample(){ 
-
-		float sample = 0;
-
-
-		// Gets reseted by getNextEnvValue(Envelope envelope) as long as 
-		// all envelopes reached their end
-		isFinihed = true; 
-							
-
-		for(int i = 0; i < Constants.NUM_OSCILLATORS; i++){
-
-			final Oscillator osc = synth.getOscillator(i);
-			
-			// TODO Also oscillators with a volume == 0 can be skipped 
-			if(osc.hasWaveForm()){ // Only active oscillators gets considered
-				
-				if(samplePositions[i] >= waveFormSize - 1){
-					samplePositions[i] = samplePositions[i] - waveFormSize + 1;
-				}
-
-				sample += osc.getWaveForm().getInterpSample(samplePositions[i]) * getNextEnvValue(osc.getEnvelope()) * osc.getVolume();
-				samplePositions[i] += step * synth.getPitch() * osc.getTransposeFactor();
-
-			}
-		}
-
-		envelopePos++;
-		value = sample * velocity;
-
-		if(phaseFadeOut){
-			// TODO Use a more precise solution to detect a amplitude near the zero point
-			if(value < 0.01f && value > -0.01f){ 
-				isReleasing = false;
-				isFinihed = false;
-				envelopePos = 0;
-				samplePositions[0] = 0;
-				samplePositions[1] = 0;
-				samplePositions[2] = 0;
-				samplePositions[3] = 0;
-				velocity = tmpVelocity;
-				phaseFadeOut = false;
-			}
-
-		}
-
-		return value;
-	}
-
-	/**
-	 * Returns the next envelope value of the given envelope.
-	 * @return A value between 0 and 1
-	 */
-	private float getNextEnvValue(final Envelope envelope){ 
-		float value = 0;
-
-		if(!isReleasing){
-			value = envelope.getValueAD(envelopePos);
-			isFinihed = false;
-		}
-		else if(envelopePos < envelope.getSizeR()){
-			value = envelope.getValueR(envelopePos);
-			isFinihed = false;
-		}
-
-		return value;
-
-	}
-
-	// /**
-	// * Checks, which of the given values is closer to zero
-	// *
-	// * @param a
-	// * @param b
-	// * @return true if value a is closer to zero or both are equal
-	// * false if b is closer to zero
-	// *
-	// */
-	// private boolean closerToZero(float a, float b){
-	// // Make the values positive
-	// a = (a <= 0.0F) ? 0.0F - a : a;
-	// b = (b <= 0.0F) ? 0.0F - b : b;
-	//
-	// return a <= b;
-	// }
-
-	@Override
-	public boolean equals(final Object obj){
-		if(obj instanceof Note){
-			return midiNote == ((Note)obj).midiNote;
-		}
-		return false;
-	}
-
-	@Override
-	public int hashCode(){
-		return midiNote;
-	}
-
-	/**
-	 * Sets the envelope states of this note to the 
-	 * release phase.
-	 */
-	public void setReleasing(){
-		envelopePos = 0;
-		isReleasing = true;
-	}
-
-	/**
-	 * Returns the MIDI note value of this note
-	 * @return A value between 0 and 127
-	 */
-	public int getMidiNote(){
-		return midiNote;
-	}
-
-	/**
-	 * Sets the velocity of this note
-	 * @param velocity A value between 0 and 1
-	 */
-	public void setVelocity(final float velocity){
-		this.velocity = velocity;
-	}
-
-	/**
-	 * Plays this note anymore until the amplitude reaches a point near to zero.
-	 * After this, the note will play again from beginning with the given
-	 * velocity
-	 * 
-	 * @param newVelocity
-	 */
-	public void reset(final float newVelocity){
-
-		this.tmpVelocity = velocity;
-		phaseFadeOut = true;
-
-	}
-
-}
\ No newline at end of file
+/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
+ * 
+ * This file is part of SynThesis.
+ * SynThesis is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package synthesis.logic;
+
+import synthesis.util.Constants;
+import synthesis.util.MIDI;
+
+/**
+ * Represents one note, that is played by the synthesizer.
+ * @author Matthias Birschl
+ */
+class Note {
+
+
+	/**
+	 * The fixed-point phases of the oscillators
+	 * @see WaveForm#getSampleAtPhase(int)
+	 */
+	private final int[] phases = { 0, 0, 0, 0 };
+
+	/**
+	 * The waveforms of the oscillators, which were played in the last block.
+	 * If an oscillator publishes new waveforms, the next block crossfades 
+	 * from these waveforms to the new ones.
+	 */
+	private final WaveForm[][] lastMipMaps = new WaveForm[Constants.NUM_OSCILLATORS][];
+
+	private final int midiNote;
+	private float velocity;
+
+	/**
+	 * The velocity, to which the velocity of a retriggered note glides
+	 * within {@link #velocityRampFrames} frames
+	 */
+	private float targetVelocity;
+	private float velocityStep = 0;
+	private int velocityRampFrames = 0;
+	
+	private boolean isReleasing = false;
+
+	/**
+	 * The envelope generators of the oscillators
+	 */
+	private final EnvelopeGenerator[] envelopes = new EnvelopeGenerator[Constants.NUM_OSCILLATORS];
+	public boolean isFinihed;
+
+	private final float step;
+	private final Synthesizer synth;
+
+	private float value = 0;
+
+	/**
+	 * True, if this note was stopped by the {@link VoicePool} to free a voice.
+	 * Then the note fades out within a few ms and finishes.
+	 */
+	private boolean isStolen = false;
+	private float stealGain = 1;
+	private float stealFadeStep = 0;
+
+	private static final WaveTableKernel kernel = WaveTableKernel.getInstance();
+
+//	private static Logger log = LoggerFactory.getLogger(Note.class);
+
+	/**
+	 * Creates a new note, that can be played by the synthesizer
+	 * @param midiNote The midi value of the note
+	 * @param velocity The velocity of the note
+	 * @param synth The synthesizer, that plays this note
+	 */
+	public Note(final int midiNote, final float velocity, final Synthesizer synth){
+		this.midiNote = midiNote;
+		this.synth = synth;
+		this.velocity = velocity;
+
+		final float lowestFreq = MIDI.getFreq(0);
+		step = MIDI.getFreq(midiNote) / lowestFreq;
+
+		for(int i = 0; i < Constants.NUM_OSCILLATORS; i++){
+			envelopes[i] = new EnvelopeGenerator();
+		}
+	}
+
+	/**
+	 * Returns the next sample of this note.
+	 * The calculation of the sample includes the settings of
+	 * all active oscillators (including the envelopes) 
+	 * @return A sample as a value between -1 and 1
+	 */
+	public float getNextSample(){ 
+
+		float sample = 0;
+
+
+		// Gets reseted by getNextEnvValue(int index, Envelope envelope) as long as 
+		// all envelopes reached their end
+		isFinihed = true; 
+							
+
+		final int activeOscillators = synth.getActiveOscillators();
+		final int waveFormOscillators = synth.getWaveFormOscillators();
+
+		for(int i = 0; i < Constants.NUM_OSCILLATORS; i++){
+
+			final Oscillator osc = synth.getOscillator(i);
+			
+			if((waveFormOscillators & (1 << i)) != 0){ // Only oscillators with a waveform gets considered
+
+				final float oscStep = step * synth.getPitch() * osc.getCurrentTransposeFactor();
+				final float envValue = getNextEnvValue(i, osc.getEnvelope());
+				if((activeOscillators & (1 << i)) != 0){
+					sample += osc.getWaveForm(oscStep).getSampleAtPhase(phases[i]) * envValue * osc.getVolumeRamp().getValue();
+				}
+				phases[i] += WaveForm.getPhaseIncrement(oscStep, VST_Adapter.getCurrentSampleRate());
+
+			}
+		}
+
+		if(velocityRampFrames > 0){
+			nextVelocity();
+		}
+
+		value = sample * velocity;
+
+		if(isStolen){
+			stealGain -= stealFadeStep;
+			if(stealGain <= 0){
+				stealGain = 0;
+				isFinihed = true;
+			}
+			value *= stealGain;
+		}
+
+		return value;
+	}
+
+	/**
+	 * Renders the next frames of this note and adds them to the given buffer.
+	 * In contrast to {@link #getNextSample()} every oscillator is processed in
+	 * its own loop over the whole block, so the oscillator settings and the
+	 * pitch of the synthesizer are read just once per block.
+	 * @param out The buffer, to which the samples get added
+	 * @param offset The index of the first frame in the buffer
+	 * @param frames The number of frames to render
+	 * @param voiceBuffer A scratch buffer with a length of at least frames
+	 * @param envBuffer A scratch buffer with a length of at least frames
+	 */
+	public void render(final float[] out, final int offset, final int frames, final float[] voiceBuffer, final float[] envBuffer){
+
+		for(int j = 0; j < frames; j++){
+			voiceBuffer[j] = 0;
+		}
+
+		isFinihed = true;
+		final float pitch = synth.getPitch();
+		final float sampleRate = VST_Adapter.getCurrentSampleRate();
+		final int activeOscillators = synth.getActiveOscillators();
+		final int waveFormOscillators = synth.getWaveFormOscillators();
+
+		for(int i = 0; i < Constants.NUM_OSCILLATORS; i++){
+
+			// Oscillators without a waveform are skipped
+			if((waveFormOscillators & (1 << i)) == 0){
+				continue;
+			}
+
+			final Oscillator osc = synth.getOscillator(i);
+
+			final float oscStep = step * pitch * osc.getCurrentTransposeFactor();
+			final int increment = WaveForm.getPhaseIncrement(oscStep, sampleRate);
+			int phase = phases[i];
+
+			if((activeOscillators & (1 << i)) == 0){
+				processEnvelope(i, osc, envBuffer, frames, false);
+				phases[i] = phase + increment * frames;
+				continue;
+			}
+
+			// The waveforms may be replaced by the GUI thread at any time, so 
+			// they are read just once per block
+			final WaveForm[] mipMaps = osc.getMipMaps();
+			final WaveForm waveForm = Oscillator.getMipMap(mipMaps, oscStep);
+
+			processEnvelope(i, osc, envBuffer, frames, true);
+
+			if(lastMipMaps[i] == null || lastMipMaps[i] == mipMaps){
+				phase = kernel.render(waveForm.getSamples(), phase, increment, envBuffer, voiceBuffer, frames);
+			}else{
+				// The waveform has changed since the last block, so crossfade 
+				// from the old to the new waveform to prevent a click 
+				final WaveForm oldWaveForm = Oscillator.getMipMap(lastMipMaps[i], oscStep);
+				final float fadeStep = 1f / frames;
+				float fade = 0;
+				for(int j = 0; j < frames; j++){
+					final float oldSample = oldWaveForm.getSampleAtPhase(phase);
+					final float newSample = waveForm.getSampleAtPhase(phase);
+					voiceBuffer[j] += (oldSample + (newSample - oldSample) * fade) * envBuffer[j];
+					phase += increment;
+					fade += fadeStep;
+				}
+			}
+			lastMipMaps[i] = mipMaps;
+
+			phases[i] = phase;
+		}
+
+		applyVelocity(voiceBuffer, frames);
+
+		if(isStolen){
+			// The envelope values aren't needed anymore
+			fadeOut(envBuffer, frames);
+			for(int j = 0; j < frames; j++){
+				out[offset + j] += voiceBuffer[j] * envBuffer[j];
+			}
+		}else{
+			for(int j = 0; j < frames; j++){
+				out[offset + j] += voiceBuffer[j];
+			}
+		}
+
+		if(!isFinihed && isSilent()){
+			isFinihed = true;
+		}
+	}
+
+	/**
+	 * Prepares the next frames of this note like 
+	 * {@link #render(float[], int, int, float[], float[])}, but instead of 
+	 * rendering the waveforms, it adds its oscillators to the given arrays, 
+	 * which render all notes together. The envelopes, the phases and the 
+	 * velocity are advanced to the end of the block.
+	 * @param arrays The arrays of the block
+	 * @param frames The number of frames to render
+	 */
+	public void prepare(final VoiceArrays arrays, final int frames){
+
+		isFinihed = true;
+		final float pitch = synth.getPitch();
+		final float sampleRate = VST_Adapter.getCurrentSampleRate();
+		final int activeOscillators = synth.getActiveOscillators();
+		final int waveFormOscillators = synth.getWaveFormOscillators();
+
+		for(int i = 0; i < Constants.NUM_OSCILLATORS; i++){
+
+			if((waveFormOscillators & (1 << i)) == 0){
+				continue;
+			}
+
+			final Oscillator osc = synth.getOscillator(i);
+
+			final float oscStep = step * pitch * osc.getCurrentTransposeFactor();
+			final int increment = WaveForm.getPhaseIncrement(oscStep, sampleRate);
+			final int phase = phases[i];
+			phases[i] = phase + increment * frames;
+
+			if((activeOscillators & (1 << i)) == 0){
+				processEnvelope(i, osc, arrays.getScratch(), frames, false);
+				continue;
+			}
+
+			final WaveForm[] mipMaps = osc.getMipMaps();
+			final float[] samples = Oscillator.getMipMap(mipMaps, oscStep).getSamples();
+			float[] oldSamples = null;
+			if(lastMipMaps[i] != null && lastMipMaps[i] != mipMaps){
+				oldSamples = Oscillator.getMipMap(lastMipMaps[i], oscStep).getSamples();
+			}
+			lastMipMaps[i] = mipMaps;
+
+			processEnvelope(i, osc, arrays.addLane(samples, oldSamples, phase, increment), frames, true);
+		}
+
+		applyVelocity(arrays.getVelocities(), frames);
+
+		if(isStolen){
+			fadeOut(arrays.getStealGains(), frames);
+		}
+		arrays.endVoice(isStolen);
+
+		if(!isFinihed && isSilent()){
+			isFinihed = true;
+		}
+	}
+
+	/**
+	 * Writes the envelope values of the given oscillator for the next 
+	 * frames multiplied with its volume into the given buffer
+	 * @param index The index of the oscillator
+	 * @param osc The oscillator
+	 * @param envBuffer The buffer with a length of at least frames
+	 * @param frames The number of frames
+	 * @param isActive False, if the volume of the oscillator is 0
+	 */
+	private void processEnvelope(final int index, final Oscillator osc, final float[] envBuffer, final int frames, final boolean isActive){
+
+		final Envelope envelope = osc.getEnvelope();
+		final ParameterRamp volume = osc.getVolumeRamp();
+
+		if(!isActive){
+			// The oscillator is silent, because its volume is 0. Its envelope 
+			// keeps running, so the note plays on, when the volume rises.
+			envelopes[index].process(envelope, envBuffer, frames, 0);
+		}else if(volume.getStartValue() == volume.getValue()){
+			envelopes[index].process(envelope, envBuffer, frames, volume.getValue());
+		}else{
+			// The volume gets automated, so it follows the ramp within the block
+			envelopes[index].process(envelope, envBuffer, frames, 1);
+			final float volumeStep = (volume.getValue() - volume.getStartValue()) / frames;
+			float gain = volume.getStartValue();
+			for(int j = 0; j < frames; j++){
+				gain += volumeStep;
+				envBuffer[j] *= gain;
+			}
+		}
+		if(!envelopes[index].isFinished()){
+			isFinihed = false;
+		}
+	}
+
+	/**
+	 * Multiplies the next frames of the given buffer with the velocity, 
+	 * which glides to its new value after a retrigger
+	 */
+	private void applyVelocity(final float[] buffer, final int frames){
+		if(velocityRampFrames > 0){
+			for(int j = 0; j < frames; j++){
+				if(velocityRampFrames > 0){
+					nextVelocity();
+				}
+				buffer[j] *= velocity;
+			}
+		}else{
+			for(int j = 0; j < frames; j++){
+				buffer[j] *= velocity;
+			}
+		}
+	}
+
+	/**
+	 * Writes the gains of the next frames of a stolen note into the given 
+	 * buffer. The note is finished, when the gain reaches 0.
+	 */
+	private void fadeOut(final float[] gains, final int frames){
+		float gain = stealGain;
+		for(int j = 0; j < frames; j++){
+			gain -= stealFadeStep;
+			if(gain < 0){
+				gain = 0;
+			}
+			gains[j] = gain;
+		}
+		stealGain = gain;
+		if(gain == 0){
+			isFinihed = true;
+		}
+	}
+
+	/**
+	 * Returns true, if all envelopes are in the release phase and their 
+	 * levels have fallen below {@link Constants#SILENCE_LEVEL}, so the 
+	 * note can't get audible anymore. The volumes of the oscillators are 
+	 * not considered, because they may rise again, while the note is held.
+	 */
+	private boolean isSilent(){
+		float level = 0;
+		final int waveFormOscillators = synth.getWaveFormOscillators();
+		for(int i = 0; i < Constants.NUM_OSCILLATORS; i++){
+			if((waveFormOscillators & (1 << i)) != 0){
+				if(!envelopes[i].isReleased()){
+					return false;
+				}
+				level = Math.max(level, envelopes[i].getLevel());
+			}
+		}
+		return level * velocity * stealGain < Constants.SILENCE_LEVEL;
+	}
+
+	/**
+	 * Returns the next envelope value of the given oscillator.
+	 * @param index The index of the oscillator
+	 * @param envelope The envelope of the oscillator
+	 * @return A value between 0 and 1
+	 */
+	private float getNextEnvValue(final int index, final Envelope envelope){ 
+
+		final float value = envelopes[index].next(envelope);
+		if(!envelopes[index].isFinished()){
+			isFinihed = false;
+		}
+
+		return value;
+
+	}
+
+	/**
+	 * Moves the velocity of a retriggered note one frame 
+	 * towards the new velocity
+	 */
+	private void nextVelocity(){
+		velocityRampFrames--;
+		if(velocityRampFrames == 0){
+			velocity = targetVelocity;
+		}else{
+			velocity += velocityStep;
+		}
+	}
+
+	/**
+	 * Starts the envelopes of all oscillators from the beginning
+	 */
+	private void startEnvelopes(){
+		for(int i = 0; i < Constants.NUM_OSCILLATORS; i++){
+			envelopes[i].start();
+		}
+	}
+
+	// /**
+	// * Checks, which of the given values is closer to zero
+	// *
+	// * @param a
+	// * @param b
+	// * @return true if value a is closer to zero or both are equal
+	// * false if b is closer to zero
+	// *
+	// */
+	// private boolean closerToZero(float a, float b){
+	// // Make the values positive
+	// a = (a <= 0.0F) ? 0.0F - a : a;
+	// b = (b <= 0.0F) ? 0.0F - b : b;
+	//
+	// return a <= b;
+	// }
+
+	@Override
+	public boolean equals(final Object obj){
+		if(obj instanceof Note){
+			return midiNote == ((Note)obj).midiNote;
+		}
+		return false;
+	}
+
+	@Override
+	public int hashCode(){
+		return midiNote;
+	}
+
+	/**
+	 * Sets the envelope states of this note to the 
+	 * release phase.
+	 */
+	public void setReleasing(){
+		isReleasing = true;
+		for(int i = 0; i < Constants.NUM_OSCILLATORS; i++){
+			envelopes[i].release();
+		}
+	}
+
+	/**
+	 * Returns the MIDI note value of this note
+	 * @return A value between 0 and 127
+	 */
+	public int getMidiNote(){
+		return midiNote;
+	}
+
+	/**
+	 * Sets the velocity of this note
+	 * @param velocity A value between 0 and 1
+	 */
+	public void setVelocity(final float velocity){
+		this.velocity = velocity;
+	}
+
+	/**
+	 * Starts playing this note from the beginning with the given velocity.
+	 * This is used by the {@link VoicePool} to reuse the note objects instead
+	 * of creating a new note for each "note on" event.
+	 * @param newVelocity A value between 0 and 1
+	 */
+	public void start(final float newVelocity){
+		velocity = newVelocity;
+		isReleasing = false;
+		isFinihed = false;
+		velocityRampFrames = 0;
+		isStolen = false;
+		stealGain = 1;
+		startEnvelopes();
+		value = 0;
+		phases[0] = 0;
+		phases[1] = 0;
+		phases[2] = 0;
+		phases[3] = 0;
+		for(int i = 0; i < Constants.NUM_OSCILLATORS; i++){
+			lastMipMaps[i] = null;
+		}
+	}
+
+	/**
+	 * Fades this note out within the given number of frames. After this,
+	 * the note is finished. This is used to stop a note without a click, 
+	 * when its voice is needed for another note.
+	 * @param fadeFrames The length of the fade out in frames
+	 */
+	public void steal(final int fadeFrames){
+		isStolen = true;
+		stealFadeStep = stealGain / (fadeFrames > 0 ? fadeFrames : 1);
+	}
+
+	/**
+	 * Returns true, if this note fades out because its voice was stolen
+	 * @see #steal(int)
+	 */
+	public boolean isStolen(){
+		return isStolen;
+	}
+
+	/**
+	 * Returns true, if this note is in the release phase
+	 */
+	public boolean isReleasing(){
+		return isReleasing;
+	}
+
+	/**
+	 * Returns the velocity of this note
+	 * @return A value between 0 and 1
+	 */
+	public float getVelocity(){
+		return velocity;
+	}
+
+	/**
+	 * Returns the current level of this note, which is the highest 
+	 * envelope level of all active oscillators multiplied with the 
+	 * oscillator volume and the velocity.
+	 * @return A value between 0 and 1
+	 */
+	public float getLevel(){
+		float level = 0;
+		final int activeOscillators = synth.getActiveOscillators();
+		for(int i = 0; i < Constants.NUM_OSCILLATORS; i++){
+			final Oscillator osc = synth.getOscillator(i);
+			if((activeOscillators & (1 << i)) != 0){
+				final float envValue = envelopes[i].getLevel();
+				final float volume = osc.getVolumeRamp().getValue();
+				if(envValue * volume > level){
+					level = envValue * volume;
+				}
+			}
+		}
+		return level * velocity * stealGain;
+	}
+
+	/**
+	 * Plays this note again from the attack phase while it is still playing.
+	 * The envelopes rise from their current levels and the oscillators keep 
+	 * their phases, so the retrigger doesn't click and takes effect 
+	 * immediately. The velocity glides to the new velocity within 
+	 * {@link Constants#RETRIGGER_FADE_TIME} ms. A note, whose voice was
+	 * stolen, stops fading out and glides from its faded level.
+	 * @param newVelocity A value between 0 and 1
+	 */
+	public void retrigger(final float newVelocity){
+
+		if(isStolen){
+			velocity *= stealGain;
+			stealGain = 1;
+			isStolen = false;
+		}
+		isReleasing = false;
+		isFinihed = false;
+		for(int i = 0; i < Constants.NUM_OSCILLATORS; i++){
+			envelopes[i].retrigger();
+		}
+
+		final int rampFrames = (int)(VST_Adapter.getCurrentSampleRate() * Constants.RETRIGGER_FADE_TIME / 1000);
+		targetVelocity = newVelocity;
+		if(rampFrames > 0){
+			velocityStep = (newVelocity - velocity) / rampFrames;
+			velocityRampFrames = rampFrames;
+		}else{
+			velocity = newVelocity;
+			velocityRampFrames = 0;
+		}
+	}
+
+}
@@ -0,0 +1,85 @@
+/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
+ * 
+ * This file is part of SynThesis.
+ * SynThesis is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package synthesis.logic;
+
+import java.util.Observable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * An {@link Observable}, whose observers are not notified by the thread,
+ * that changes the model. Instead {@link #setChanged()} passes the model 
+ * to the {@link EventBus}, which notifies the observers on the event 
+ * dispatch thread. Marking a model as changed neither locks nor allocates,
+ * so it can be done by the audio thread. All changes of one frame are delivered together, 
+ * so a burst of changes, e.g. by a host automation, updates the views 
+ * just once per frame.
+ * 
+ * @author Matthias Birschl
+ */
+public class ObservableModel extends Observable {
+
+	/**
+	 * True, if this model waits for the delivery by the event bus
+	 */
+	private final AtomicBoolean isPosted = new AtomicBoolean(false);
+
+	/**
+	 * The argument for the observers of the next delivery
+	 */
+	private final AtomicReference<Object> argument = new AtomicReference<Object>();
+
+	/**
+	 * The model, that was posted to the event bus before this one.
+	 * Only used by the event bus.
+	 */
+	ObservableModel nextPosted = null;
+
+	/**
+	 * Marks this model as changed. The observers get notified with
+	 * the next frame on the event dispatch thread.
+	 */
+	@Override
+	public void setChanged(){
+		if(isPosted.compareAndSet(false, true)){
+			EventBus.post(this);
+		}
+	}
+
+	/**
+	 * Marks this model as changed like {@link #setChanged()} and passes 
+	 * the given argument to the observers
+	 */
+	public void setChanged(final Object argument){
+		this.argument.set(argument);
+		setChanged();
+	}
+
+	/**
+	 * Notifies the observers. Called by the event bus on the event 
+	 * dispatch thread.
+	 */
+	void deliver(){
+		isPosted.set(false);
+		// The monitor of the observable is taken here instead of by the 
+		// thread, that changed the model
+		super.setChanged();
+		// Taken in one step, so an argument, that is passed meanwhile, 
+		// is either delivered now or with the next delivery
+		notifyObservers(argument.getAndSet(null));
+	}
+}
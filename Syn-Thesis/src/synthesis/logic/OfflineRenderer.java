@@ -0,0 +1,325 @@
+/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
+ * 
+ * This file is part of SynThesis.
+ * SynThesis is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package synthesis.logic;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.sound.midi.InvalidMidiDataException;
+import javax.sound.midi.MetaMessage;
+import javax.sound.midi.MidiEvent;
+import javax.sound.midi.MidiMessage;
+import javax.sound.midi.MidiSystem;
+import javax.sound.midi.Sequence;
+import javax.sound.midi.ShortMessage;
+import javax.sound.midi.Track;
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+
+import org.apache.log4j.Logger;
+
+import synthesis.db.DAOfactory;
+import synthesis.db.GenericDAO;
+import synthesis.util.Constants;
+import synthesis.util.LoggerFactory;
+import synthesis.util.MIDI;
+
+/**
+ * Renders a standard MIDI file with a preset to a WAV file without a 
+ * VST host. The synthesizer is driven directly, so the rendering is much
+ * faster than real time. The result only depends on the preset, the MIDI
+ * file and the sample rate, so it can be used for golden file tests.
+ * 
+ * Usage: java -cp Syn-Thesis.jar synthesis.logic.OfflineRenderer [-db dir] 
+ * [-rate hz] [-threads n] -preset name input.mid output.wav
+ * 
+ * The presets are read from the database in the directory h2db within
+ * the given directory or the working directory. 
+ * 
+ * @author Matthias Birschl
+ *
+ */
+public class OfflineRenderer {
+
+	private static Logger log = LoggerFactory.getLogger(OfflineRenderer.class);
+
+	private static final int BLOCK_SIZE = 256;
+
+	/**
+	 * The meta message type of a tempo change
+	 */
+	private static final int TEMPO_MESSAGE = 0x51;
+
+	/**
+	 * The tempo of a MIDI file without tempo messages in microseconds per quarter note
+	 */
+	private static final int DEFAULT_TEMPO = 500000;
+
+	/**
+	 * How long the notes may sound after the last MIDI event in ms
+	 */
+	private static final int MAX_TAIL = Constants.MAX_RELEASE_TIME + 1000;
+
+	private final Synthesizer synth;
+	private final float sampleRate;
+
+	/**
+	 * Renders the notes in parallel, or null for the serial rendering
+	 */
+	private final ForkJoinPool pool;
+
+	private float[] left = new float[0];
+	private float[] right = new float[0];
+	private int length = 0;
+
+	/**
+	 * @param preset The preset, which gets loaded into the synthesizer
+	 * @param sampleRate The sample rate of the rendered audio in Hz
+	 * @param threads The number of threads, which render the notes. The
+	 * result is the same for any number of threads.
+	 */
+	public OfflineRenderer(final Preset preset, final float sampleRate, final int threads){
+		this.sampleRate = sampleRate;
+		this.pool = threads > 1 ? new ForkJoinPool(threads) : null;
+
+		// The waveforms and envelopes are calculated with the sample rate
+		// of the plugin, when they get created
+		VST_Adapter.setCurrentSampleRate(sampleRate);
+		synth = new Synthesizer(false);
+		preset.writeValues(synth);
+	}
+
+	/**
+	 * Renders all events of the given sequence and the release phases of
+	 * the notes, which are still playing after the last event.
+	 * @return The number of rendered frames
+	 */
+	public int render(final Sequence sequence){
+
+		final List<MidiEvent> events = new ArrayList<MidiEvent>();
+		for(final Track track : sequence.getTracks()){
+			for(int i = 0; i < track.size(); i++){
+				events.add(track.get(i));
+			}
+		}
+		// The sort is stable, so events on the same tick keep their order
+		Collections.sort(events, new Comparator<MidiEvent>() {
+			@Override
+			public int compare(final MidiEvent e1, final MidiEvent e2){
+				return e1.getTick() < e2.getTick() ? -1 : (e1.getTick() == e2.getTick() ? 0 : 1);
+			}
+		});
+
+		final boolean isPPQ = sequence.getDivisionType() == Sequence.PPQ;
+		double secondsPerTick = isPPQ 
+				? DEFAULT_TEMPO / 1000000.0 / sequence.getResolution()
+				: 1.0 / (sequence.getDivisionType() * sequence.getResolution());
+		double seconds = 0;
+		long lastTick = 0;
+
+		for(final MidiEvent event : events){
+			seconds += (event.getTick() - lastTick) * secondsPerTick;
+			lastTick = event.getTick();
+
+			final MidiMessage message = event.getMessage();
+			if(message instanceof ShortMessage){
+				renderTo((int)Math.round(seconds * sampleRate));
+				processMessage((ShortMessage)message);
+
+			}else if(isPPQ && message instanceof MetaMessage && ((MetaMessage)message).getType() == TEMPO_MESSAGE){
+				final byte[] data = ((MetaMessage)message).getData();
+				final int tempo = (data[0] & 0xff) << 16 | (data[1] & 0xff) << 8 | (data[2] & 0xff);
+				secondsPerTick = tempo / 1000000.0 / sequence.getResolution();
+			}
+		}
+
+		// Let the released notes fade out
+		final int end = length + (int)(MAX_TAIL * sampleRate / 1000);
+		while(length < end && synth.getActiveVoiceCount() > 0){
+			renderTo(Math.min(length + BLOCK_SIZE, end));
+		}
+
+		return length;
+	}
+
+	/**
+	 * Renders the frames up to the given frame
+	 */
+	private void renderTo(final int frame){
+
+		if(frame > left.length){
+			final int capacity = Math.max(frame, left.length * 2);
+			final float[] newLeft = new float[capacity];
+			final float[] newRight = new float[capacity];
+			System.arraycopy(left, 0, newLeft, 0, length);
+			System.arraycopy(right, 0, newRight, 0, length);
+			left = newLeft;
+			right = newRight;
+		}
+
+		while(length < frame){
+			final int frames = Math.min(BLOCK_SIZE, frame - length);
+			synth.render(left, right, length, frames, pool);
+			length += frames;
+		}
+	}
+
+	/**
+	 * Applies a MIDI message of the sequence to the synthesizer
+	 */
+	private void processMessage(final ShortMessage message){
+
+		switch(message.getCommand()){
+			case ShortMessage.NOTE_ON:
+				// A note on message with the velocity 0 is a note off message
+				if(message.getData2() > 0){
+					synth.noteOn(message.getData1(), message.getData2() / 128f);
+				}else{
+					synth.noteOff(message.getData1());
+				}
+				break;
+			case ShortMessage.NOTE_OFF:
+				synth.noteOff(message.getData1());
+				break;
+			case ShortMessage.PITCH_BEND:
+				synth.setPitch(MIDI.getPitchFactor(message.getData1(), message.getData2()));
+				break;
+		}
+	}
+
+	/**
+	 * Writes the rendered frames as a 16 bit stereo WAV file. 
+	 * Samples beyond -1 and 1 get clipped.
+	 */
+	public void writeWav(final File file) throws IOException{
+
+		final byte[] bytes = new byte[length * 4];
+		for(int i = 0; i < length; i++){
+			putSample(bytes, i * 4, left[i]);
+			putSample(bytes, i * 4 + 2, right[i]);
+		}
+
+		final AudioFormat format = new AudioFormat(sampleRate, 16, 2, true, false);
+		final AudioInputStream stream = new AudioInputStream(new ByteArrayInputStream(bytes), format, length);
+		AudioSystem.write(stream, AudioFileFormat.Type.WAVE, file);
+	}
+
+	/**
+	 * Writes the sample as 16 bit little endian value to the given position
+	 */
+	private static void putSample(final byte[] bytes, final int pos, final float sample){
+		final float clipped = sample > 1 ? 1 : (sample < -1 ? -1 : sample);
+		final int value = Math.round(clipped * Short.MAX_VALUE);
+		bytes[pos] = (byte)value;
+		bytes[pos + 1] = (byte)(value >> 8);
+	}
+
+	/**
+	 * Loads all presets from the database
+	 * @return The presets or an empty list, if the database can't be read
+	 */
+	public static List<Preset> loadPresets(){
+
+		List<Preset> presets = new ArrayList<Preset>();
+		boolean ok = false;
+		final GenericDAO dao = DAOfactory.createDAO();
+		try{
+			dao.beginTransaction();
+			presets = dao.findAll(Preset.class);
+			ok = true;
+		}catch(final Exception e){
+			ok = false;
+			log.error("Transaction error", e);
+		}finally{
+			dao.endTransaction(ok);
+		}
+		return presets;
+	}
+
+	public static void main(final String[] args){
+
+		String presetName = null;
+		float sampleRate = 44100;
+		int threads = Runtime.getRuntime().availableProcessors();
+		final List<String> files = new ArrayList<String>();
+
+		for(int i = 0; i < args.length; i++){
+			if("-preset".equals(args[i]) && i + 1 < args.length){
+				presetName = args[++i];
+			}else if("-rate".equals(args[i]) && i + 1 < args.length){
+				sampleRate = Float.parseFloat(args[++i]);
+			}else if("-threads".equals(args[i]) && i + 1 < args.length){
+				threads = Integer.parseInt(args[++i]);
+			}else if("-db".equals(args[i]) && i + 1 < args.length){
+				System.setProperty(VST_Adapter.BASE_PATH_PROPERTY, args[++i]);
+			}else{
+				files.add(args[i]);
+			}
+		}
+
+		if(presetName == null || files.size() != 2){
+			System.err.println("Usage: java " + OfflineRenderer.class.getName() 
+					+ " [-db dir] [-rate hz] [-threads n] -preset name input.mid output.wav");
+			System.exit(2);
+		}
+		if(System.getProperty(VST_Adapter.BASE_PATH_PROPERTY) == null){
+			System.setProperty(VST_Adapter.BASE_PATH_PROPERTY, ".");
+		}
+
+		Preset preset = null;
+		final List<Preset> presets = loadPresets();
+		for(final Preset p : presets){
+			if(p.getName().equalsIgnoreCase(presetName)){
+				preset = p;
+			}
+		}
+		if(preset == null){
+			Collections.sort(presets);
+			System.err.println("Preset not found: " + presetName + ". Available presets: " + presets);
+			System.exit(1);
+		}
+
+		try{
+			final Sequence sequence = MidiSystem.getSequence(new File(files.get(0)));
+
+			final long start = System.nanoTime();
+			final OfflineRenderer renderer = new OfflineRenderer(preset, sampleRate, threads);
+			final int frames = renderer.render(sequence);
+			final double time = (System.nanoTime() - start) / 1e9;
+
+			renderer.writeWav(new File(files.get(1)));
+			log.info(String.format("Rendered %.1f s in %.2f s (%.0fx real time)", 
+					frames / sampleRate, time, frames / sampleRate / time));
+
+		}catch(final InvalidMidiDataException e){
+			System.err.println("Invalid MIDI file: " + e.getMessage());
+			System.exit(1);
+		}catch(final IOException e){
+			System.err.println(e.getMessage());
+			System.exit(1);
+		}
+		System.exit(0);
+	}
+}
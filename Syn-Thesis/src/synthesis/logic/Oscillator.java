@@ -1,219 +1,522 @@
-/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
- * 
- * This file is part of SynThesis.
- * SynThesis is free software: you can redistribute it and/or modify
- * it under the terms of the GNU General Public License as published by
- * the Free Software Foundation, either version 3 of the License, or
- * (at your option) any later version.
- *
- * This program is distributed in the hope that it will be useful,
- * but WITHOUT ANY WARRANTY; without even the implied warranty of
- * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
- * GNU General Public License for more details.
- *
- * You should have received a copy of the GNU General Public License
- * along with this program.  If not, see <http://www.gnu.org/licenses/>.
- */
-package synthesis.logic;
-
-import java.util.Observable;
-
-import synthesis.util.Constants;
-import synthesis.util.MIDI;
-
-/**
- * Represents an oscillator, whose waveform can be modified by adding
- * or subtracting different frequencies with different amounts. 
- * This class also contains the waveforms of all required frequencies in a 
- * static field, so all oscillators and all plugin instances can use the 
- * same frequency-waveforms.
- *  
- * @author Matthias Birschl
- *
- */
-public class Oscillator extends Observable {
-
-	
-	/**
-	 * The waveform of this oscillator
-	 */
-	private final WaveForm waveForm = new WaveForm();
-
-	/**
-	 * Contains all the frequencies that can be added to an oscillator.
-	 * This frequencies exists just once for all oscillators and plugin
-	 * instances 
-	 */
-	private static Frequency[] frequencies = new Frequency[Constants.NUM_ADDITIVE_FREQS];
-
-	private float[] additiveLevels = new float[Constants.NUM_ADDITIVE_FREQS];
-
-//	private static Logger log = LoggerFactory.getLogger(Oscillator.class);
-
-	private final Envelope envelope = new Envelope();
-
-	private boolean hasWaveForm = false;
-
-	private float volume = 1;
-
-	private float transposeFactor = 1;
-
-
-	/**
-	 * Create the frequencies. The frequencies exists just once for all 
-	 * oscillators and also for all plugin instances !
-	 */
-	static{
-		for(int i = 0; i < frequencies.length; i++){
-			final Frequency freq = new Frequency(MIDI.getFreq(0) * (i + 1));
-			frequencies[i] = freq;
-		}
-	}
-
-	public Oscillator(){
-
-	}
-
-	
-	/**
-	 * Adds and subtracts the overtones with the given levels to this oscillator.
-	 * 
-	 * @param additiveLevels An array with the length {@link Constants#NUM_ADDITIVE_FREQS}.
-	 * Each element contains the level of one overtone as a value between -1 and 1.
-	 * A negative value means, that the overtone gets subtracted to this oscillator.
-	 * A zero value means, that this overtone is not used by this oscillator.
-	 * A positive value means, that the overtone gets added to this oscillator.
-	 */
-	public void setAdditiveFreqLevels(final float[] additiveLevels){
-
-		hasWaveForm = false;
-		this.additiveLevels = additiveLevels;
-		waveForm.clear();
-		for(int i = 0; i < additiveLevels.length; i++){
-			if(additiveLevels[i] != 0){
-				waveForm.addFrequency(frequencies[i], additiveLevels[i]);
-				hasWaveForm = true;
-			}
-			
-		}
-		waveForm.normalize();
-		waveForm.setChanged();
-
-	}
-
-	
-	/**
-	 * The transpose factor determines the pitch level of this oscillator 
-	 * 
-	 * @param factor The transpose factor. For example: 
-	 * 0.25 = -2 octaves 
-	 * 0.5 	= -1 octave
-	 * 1	=  0 octaves
-	 * 2	= +1 octave
-	 * 4	= +2 octaves
-	 */
-	public void setTransposeFactor(final float factor){
-		this.transposeFactor = factor;
-
-	}
-	
-	
-	/**
-	 * The transpose factor determines the pitch level of this oscillator 
-	 * 
-	 * @param factor The transpose factor. For example: 
-	 * 0.25 = -2 octaves 
-	 * 0.5 	= -1 octave
-	 * 1	=  0 octaves
-	 * 2	= +1 octave
-	 * 4	= +2 octaves
-	 */
-	public float getTransposeFactor(){
-
-		return transposeFactor;
-	}
-
-	/**
-	 * Returns the {@link WaveForm} of this oscillator.
-	 */
-	public WaveForm getWaveForm(){
-		return waveForm;
-	}
-
-	/**
-	 * Returns the {@link Envelope} of this oscillator.
-	 */
-	public Envelope getEnvelope(){
-		return envelope;
-	}
-
-	
-//	public void setEnvelope(Envelope envelope){
-//		this.envelope = envelope;
-//	}
-
-	/**
-	 * Returns the volume of this oscillator.
-	 * @return A value between 0 and 1
-	 */
-	public float getVolume(){
-		return volume;
-	}
-
-	/**
-	 * Sets the volume of this oscillator.
-	 * @param volume A value between 0 and 1
-	 */
-	public void setVolume(final float volume){
-		this.volume = volume;
-	}
-
-	/**
-	 * True wenn dieser oszillator eine Wellenform enthaelt, bzw, nicht alle
-	 * additiven freq-levels 0 sind
-	 * 
-	 * @return
-	 */
-	boolean hasWaveForm(){
-
-		return hasWaveForm;
-	}
-
-	/**
-	 * Notifies all observers, that this oscillator has changed
-	 */
-	@Override
-	public void setChanged(){
-		super.setChanged();
-		notifyObservers();
-	}
-
-	/**
-	 * Returns the levels of the overtones, of this oscillator
-	 * @return An array with the length {@link Constants#NUM_ADDITIVE_FREQS}.
-	 * Each element contains the level of one overtone as a value between -1 and 1.
-	 * A negative value means, that the overtone is subtracted to this oscillator.
-	 * A zero value means, that this overtone is not used bay this oscillator.
-	 * A positive value means, that the overtone is added to this oscillator.
-	 */
-	public float[] getAdditiveFreqLevels(){
-		return additiveLevels;
-	}
-
-	
-//	/**
-//	 * Creates a deep copy of this oscillator
-//	 * @return a new {@link Oscillator} instance.
-//	 */
-//	public Oscillator copy(){
-//
-//		Oscillator newOsc = new Oscillator();
-//		newOsc.setAdditiveFreqLevels(additiveLevels);
-//		newOsc.setVolume(volume);
-//		newOsc.setTransposeFactor(transposeFactor);
-//		newOsc.setEnvelope(envelope.copy());
-//
-//		return newOsc;
-//	}
-
-}
+/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
+ * 
+ * This file is part of SynThesis.
+ * SynThesis is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package synthesis.logic;
+
+
+import synthesis.util.Constants;
+import synthesis.util.MIDI;
+
+/**
+ * Represents an oscillator, whose waveform can be modified by adding
+ * or subtracting different frequencies with different amounts. 
+ * This class also contains the waveforms of all required frequencies in a 
+ * static field, so all oscillators and all plugin instances can use the 
+ * same frequency-waveforms.
+ *  
+ * @author Matthias Birschl
+ *
+ */
+public class Oscillator extends ObservableModel {
+
+	
+	/**
+	 * The waveform of this oscillator
+	 */
+	private final WaveForm waveForm = new WaveForm();
+
+	/**
+	 * The number of band-limited versions of the waveform. Each level 
+	 * covers one octave of the playback step, which is enough for the
+	 * highest MIDI note with the highest pitch bend and transpose factor
+	 */
+	static final int NUM_MIPMAP_LEVELS = 14;
+
+	/**
+	 * Band-limited versions of the waveform, one for each octave. The level n
+	 * is used for a playback step between 2^n and 2^(n+1) and contains just the
+	 * overtones, which stay below the Nyquist frequency at these steps.
+	 * Levels, that contain all overtones, refer to the same waveform.
+	 * 
+	 * These waveforms are read by the audio thread. So they are never changed
+	 * after they were published. Each change of the overtones creates
+	 * new waveforms, which replace the old ones with a single write
+	 * of this volatile field.
+	 */
+	private volatile WaveForm[] mipMaps = new WaveForm[NUM_MIPMAP_LEVELS];
+
+	/**
+	 * The number of overtones, that each level of {@link #mipMaps} contains
+	 */
+	private final int[] mipMapOvertones = new int[NUM_MIPMAP_LEVELS];
+
+	/**
+	 * The sum of all overtones with their levels before the normalization.
+	 * Changing the level of one overtone just adds the difference of this
+	 * overtone to the sum, instead of adding up all overtones again.
+	 */
+	private final WaveForm harmonicSum = new WaveForm();
+
+	/**
+	 * The sums before the normalization of the levels of {@link #mipMaps}, 
+	 * that don't contain all overtones. Null for the other levels.
+	 */
+	private final WaveForm[] mipMapSums = new WaveForm[NUM_MIPMAP_LEVELS];
+
+	/**
+	 * If more overtones than this are changed at once, the sums get 
+	 * calculated from the scratch.
+	 */
+	private static final int MAX_INCREMENTAL_CHANGES = 4;
+
+	/**
+	 * After this number of incremental changes, the sums get calculated from
+	 * the scratch, so that rounding errors don't accumulate
+	 */
+	private static final int MAX_INCREMENTAL_UPDATES = 1000;
+
+	private int incrementalUpdates = 0;
+
+	/**
+	 * Contains all the frequencies that can be added to an oscillator.
+	 * This frequencies exists just once for all oscillators and plugin
+	 * instances 
+	 */
+	private static Frequency[] frequencies = new Frequency[Constants.NUM_ADDITIVE_FREQS];
+
+	private float[] additiveLevels = new float[Constants.NUM_ADDITIVE_FREQS];
+
+//	private static Logger log = LoggerFactory.getLogger(Oscillator.class);
+
+	private final Envelope envelope = new Envelope();
+
+	private volatile boolean hasWaveForm = false;
+
+	private final ParameterRamp volume = new ParameterRamp(1);
+
+	private float transposeFactor = 1;
+
+	/**
+	 * The transpose factor, that is used by the audio thread
+	 */
+	private float currentTransposeFactor = 1;
+
+	/**
+	 * The number of the transpose factor in the {@link ParameterQueue}.
+	 * The parameters of the envelope come before it.
+	 */
+	static final int TRANSPOSE = Envelope.NUM_PARAMETERS;
+	static final int NUM_PARAMETERS = TRANSPOSE + 1;
+
+	/**
+	 * The queue, through which the changes get to the audio thread. 
+	 * If null, the changes are applied at once.
+	 */
+	private ParameterQueue changes = null;
+	private int firstParameter = 0;
+
+
+	/**
+	 * Create the frequencies. The frequencies exists just once for all 
+	 * oscillators and also for all plugin instances !
+	 */
+	static{
+		for(int i = 0; i < frequencies.length; i++){
+			final Frequency freq = new Frequency(i + 1);
+			frequencies[i] = freq;
+		}
+	}
+
+	public Oscillator(){
+
+		final WaveForm silence = new WaveForm();
+		for(int level = 0; level < NUM_MIPMAP_LEVELS; level++){
+			mipMaps[level] = silence;
+		}
+		calculateOvertoneLimits(VST_Adapter.getCurrentSampleRate());
+	}
+
+	/**
+	 * Calculates how many overtones each band-limited level may contain at
+	 * the given sample rate
+	 */
+	private void calculateOvertoneLimits(final float sampleRate){
+
+		final float nyquist = sampleRate / 2;
+		final float lowestFreq = MIDI.getFreq(0);
+
+		for(int level = 0; level < NUM_MIPMAP_LEVELS; level++){
+
+			// The highest playback step of this level is 2^(level+1)
+			final int maxOvertones = (int)(nyquist / (lowestFreq * (2 << level)));
+
+			if(maxOvertones >= Constants.NUM_ADDITIVE_FREQS){
+				mipMapOvertones[level] = Constants.NUM_ADDITIVE_FREQS;
+				mipMapSums[level] = null;
+			}else{
+				mipMapOvertones[level] = maxOvertones;
+				if(mipMapSums[level] == null){
+					mipMapSums[level] = new WaveForm();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Rebuilds the band-limited versions of the waveform for the given
+	 * sample rate. The audio thread keeps playing the old versions, until
+	 * the new ones are published with a single write. So this should be 
+	 * called from another thread than the audio thread, because the rebuild
+	 * takes some time.
+	 * @param sampleRate The new sample rate in Hz
+	 */
+	synchronized void setSampleRate(final float sampleRate){
+
+		calculateOvertoneLimits(sampleRate);
+		calculateSums(additiveLevels);
+		publishMipMaps();
+	}
+
+	
+	/**
+	 * Adds and subtracts the overtones with the given levels to this oscillator.
+	 * Only the overtones, whose levels have changed since the last call,
+	 * get recalculated.
+	 * 
+	 * @param additiveLevels An array with the length {@link Constants#NUM_ADDITIVE_FREQS}.
+	 * Each element contains the level of one overtone as a value between -1 and 1.
+	 * A negative value means, that the overtone gets subtracted to this oscillator.
+	 * A zero value means, that this overtone is not used by this oscillator.
+	 * A positive value means, that the overtone gets added to this oscillator.
+	 */
+	public synchronized void setAdditiveFreqLevels(final float[] additiveLevels){
+
+		final float[] newLevels = additiveLevels.clone();
+
+		int changes = 0;
+		boolean hasOvertones = false;
+		for(int i = 0; i < newLevels.length; i++){
+			// Tiny levels would put denormal numbers into the waveform
+			if(Math.abs(newLevels[i]) < Constants.DENORMAL_THRESHOLD){
+				newLevels[i] = 0;
+			}
+			if(newLevels[i] != this.additiveLevels[i]){
+				changes++;
+			}
+			if(newLevels[i] != 0){
+				hasOvertones = true;
+			}
+		}
+
+		if(!hasOvertones || changes > MAX_INCREMENTAL_CHANGES || incrementalUpdates >= MAX_INCREMENTAL_UPDATES){
+			calculateSums(newLevels);
+		}else{
+			for(int i = 0; i < newLevels.length; i++){
+				if(newLevels[i] != this.additiveLevels[i]){
+					addOvertone(i, newLevels[i] - this.additiveLevels[i]);
+				}
+			}
+			incrementalUpdates++;
+		}
+		this.additiveLevels = newLevels;
+
+		final float factor = publishMipMaps();
+		hasWaveForm = hasOvertones;
+
+		waveForm.setScaled(harmonicSum, factor);
+		waveForm.setChanged();
+
+	}
+
+	/**
+	 * Normalizes the sums and publishes them as new band-limited versions
+	 * of the waveform for the audio thread.
+	 * @return The factor, with which the sums were scaled
+	 */
+	private float publishMipMaps(){
+
+		// Normalize the waveform and its band-limited versions. All levels 
+		// are scaled with the same factor, so that removing the high 
+		// overtones doesn't change the loudness of the remaining overtones.
+		final float peak = harmonicSum.getPeak();
+		final float factor = peak != 0 ? 1 / peak : 1;
+
+		// Build the new waveforms for the audio thread and publish them at once
+		final WaveForm fullWaveForm = new WaveForm();
+		fullWaveForm.setScaled(harmonicSum, factor);
+		final WaveForm[] newMipMaps = new WaveForm[NUM_MIPMAP_LEVELS];
+		for(int level = 0; level < NUM_MIPMAP_LEVELS; level++){
+			if(mipMapSums[level] != null){
+				newMipMaps[level] = new WaveForm();
+				newMipMaps[level].setScaled(mipMapSums[level], factor);
+			}else{
+				newMipMaps[level] = fullWaveForm;
+			}
+		}
+		mipMaps = newMipMaps;
+
+		return factor;
+	}
+
+	/**
+	 * Calculates the sums of the overtones from the scratch
+	 */
+	private void calculateSums(final float[] levels){
+		harmonicSum.clear();
+		for(int level = 0; level < NUM_MIPMAP_LEVELS; level++){
+			if(mipMapSums[level] != null){
+				mipMapSums[level].clear();
+			}
+		}
+		for(int i = 0; i < levels.length; i++){
+			if(levels[i] != 0){
+				addOvertone(i, levels[i]);
+			}
+		}
+		incrementalUpdates = 0;
+	}
+
+	/**
+	 * Adds the overtone with the given level to the sums of the waveform and of the
+	 * band-limited versions, that contain this overtone
+	 * @param index The index of the overtone
+	 * @param level The level, which may also be the difference to the previous level
+	 */
+	private void addOvertone(final int index, final float level){
+		harmonicSum.addFrequency(frequencies[index], level);
+		for(int mipMapLevel = 0; mipMapLevel < NUM_MIPMAP_LEVELS; mipMapLevel++){
+			if(mipMapSums[mipMapLevel] != null && index < mipMapOvertones[mipMapLevel]){
+				mipMapSums[mipMapLevel].addFrequency(frequencies[index], level);
+			}
+		}
+	}
+
+	
+	/**
+	 * The transpose factor determines the pitch level of this oscillator 
+	 * 
+	 * @param factor The transpose factor. For example: 
+	 * 0.25 = -2 octaves 
+	 * 0.5 	= -1 octave
+	 * 1	=  0 octaves
+	 * 2	= +1 octave
+	 * 4	= +2 octaves
+	 */
+	public void setTransposeFactor(final float factor){
+		this.transposeFactor = factor;
+
+		final ParameterQueue queue = changes;
+		if(queue == null){
+			currentTransposeFactor = factor;
+			return;
+		}
+		final int position = queue.reserve(1);
+		if(position >= 0){
+			queue.set(position, firstParameter + TRANSPOSE, factor);
+			queue.publish(position, 1);
+		}
+	}
+	
+	
+	/**
+	 * The transpose factor determines the pitch level of this oscillator 
+	 * 
+	 * @param factor The transpose factor. For example: 
+	 * 0.25 = -2 octaves 
+	 * 0.5 	= -1 octave
+	 * 1	=  0 octaves
+	 * 2	= +1 octave
+	 * 4	= +2 octaves
+	 */
+	public float getTransposeFactor(){
+
+		return transposeFactor;
+	}
+
+	/**
+	 * Returns the transpose factor, that is used by the audio thread
+	 */
+	float getCurrentTransposeFactor(){
+		return currentTransposeFactor;
+	}
+
+	/**
+	 * Lets the changes of the parameters of this oscillator and its 
+	 * envelope get to the audio thread through the given queue
+	 * @param changes The queue of the synthesizer
+	 * @param firstParameter The number of the first parameter of 
+	 * this oscillator in the queue
+	 */
+	void setParameterQueue(final ParameterQueue changes, final int firstParameter){
+		this.firstParameter = firstParameter;
+		this.changes = changes;
+		envelope.setParameterQueue(changes, firstParameter);
+	}
+
+	/**
+	 * Sets one parameter of the audio thread
+	 * @param parameter The parameter number without the offset of this 
+	 * oscillator, e.g. {@link #TRANSPOSE} or {@link Envelope#ATTACK}
+	 * @param value The new value
+	 */
+	void apply(final int parameter, final float value){
+		if(parameter == TRANSPOSE){
+			currentTransposeFactor = value;
+		}else{
+			envelope.apply(parameter, value);
+		}
+	}
+
+	/**
+	 * Copies all parameters to the parameters of the audio thread. This is 
+	 * needed, if changes were dropped because the queue was full.
+	 */
+	void resync(){
+		currentTransposeFactor = transposeFactor;
+		envelope.resync();
+	}
+
+	/**
+	 * Returns the {@link WaveForm} of this oscillator.
+	 */
+	public WaveForm getWaveForm(){
+		return waveForm;
+	}
+
+	/**
+	 * Returns the band-limited version of the waveform, which can be played
+	 * with the given step without aliasing.
+	 * @param step The number of samples of the waveform, that are skipped 
+	 * per output sample
+	 */
+	WaveForm getWaveForm(final float step){
+		return getMipMap(mipMaps, step);
+	}
+
+	/**
+	 * Returns the band-limited versions of the waveform, that are currently 
+	 * published for the audio thread. The returned waveforms never change,
+	 * so a caller can use them for a whole block. 
+	 * @see #getMipMap(WaveForm[], float)
+	 */
+	WaveForm[] getMipMaps(){
+		return mipMaps;
+	}
+
+	/**
+	 * Returns the waveform out of the given band-limited versions, which can 
+	 * be played with the given step without aliasing.
+	 * @param mipMaps The band-limited versions of a waveform
+	 * @param step The frequency of the played note divided by the frequency
+	 * of the lowest MIDI note
+	 */
+	static WaveForm getMipMap(final WaveForm[] mipMaps, final float step){
+		int level = Math.getExponent(step);
+		if(level < 0){
+			level = 0;
+		}else if(level >= NUM_MIPMAP_LEVELS){
+			level = NUM_MIPMAP_LEVELS - 1;
+		}
+		return mipMaps[level];
+	}
+
+	/**
+	 * Returns the {@link Envelope} of this oscillator.
+	 */
+	public Envelope getEnvelope(){
+		return envelope;
+	}
+
+	
+//	public void setEnvelope(Envelope envelope){
+//		this.envelope = envelope;
+//	}
+
+	/**
+	 * Returns the volume of this oscillator.
+	 * @return A value between 0 and 1
+	 */
+	public float getVolume(){
+		return volume.getTarget();
+	}
+
+	/**
+	 * Returns the volume, that follows the changes of an automation
+	 * with a ramp. Just used by the audio thread.
+	 */
+	ParameterRamp getVolumeRamp(){
+		return volume;
+	}
+
+	/**
+	 * Sets the volume of this oscillator. Volumes below 
+	 * {@link Constants#DENORMAL_THRESHOLD} turn the oscillator off.
+	 * @param volume A value between 0 and 1
+	 */
+	public void setVolume(final float volume){
+		this.volume.set(volume < Constants.DENORMAL_THRESHOLD ? 0 : volume);
+	}
+
+	/**
+	 * Changes the volume of this oscillator with a short ramp instead of
+	 * at once, so that an automation of the volume doesn't cause clicks
+	 * @param volume A value between 0 and 1
+	 */
+	public void rampVolume(final float volume){
+		this.volume.rampTo(volume < Constants.DENORMAL_THRESHOLD ? 0 : volume);
+	}
+
+	/**
+	 * True wenn dieser oszillator eine Wellenform enthaelt, bzw, nicht alle
+	 * additiven freq-levels 0 sind
+	 * 
+	 * @return
+	 */
+	boolean hasWaveForm(){
+
+		return hasWaveForm;
+	}
+
+
+	/**
+	 * Returns the levels of the overtones, of this oscillator
+	 * @return An array with the length {@link Constants#NUM_ADDITIVE_FREQS}.
+	 * Each element contains the level of one overtone as a value between -1 and 1.
+	 * A negative value means, that the overtone is subtracted to this oscillator.
+	 * A zero value means, that this overtone is not used bay this oscillator.
+	 * A positive value means, that the overtone is added to this oscillator.
+	 */
+	public float[] getAdditiveFreqLevels(){
+		return additiveLevels;
+	}
+
+	
+//	/**
+//	 * Creates a deep copy of this oscillator
+//	 * @return a new {@link Oscillator} instance.
+//	 */
+//	public Oscillator copy(){
+//
+//		Oscillator newOsc = new Oscillator();
+//		newOsc.setAdditiveFreqLevels(additiveLevels);
+//		newOsc.setVolume(volume);
+//		newOsc.setTransposeFactor(transposeFactor);
+//		newOsc.setEnvelope(envelope.copy());
+//
+//		return newOsc;
+//	}
+
+}
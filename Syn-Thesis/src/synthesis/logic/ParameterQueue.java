@@ -0,0 +1,167 @@
+/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
+ * 
+ * This file is part of SynThesis.
+ * SynThesis is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package synthesis.logic;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A lock-free queue for parameter changes between the threads, that edit
+ * the sound (the GUI, the host or the preset loading) and the audio thread.
+ * The audio thread applies all changes at the start of a block, so a 
+ * change never takes effect in the middle of a block and the audio 
+ * thread never waits for a lock.
+ * 
+ * The queue has many producers and a single consumer. A producer reserves
+ * the slots for changes, that belong together, with {@link #reserve(int)}, 
+ * writes the changes with {@link #set(int, int, float)} and makes them 
+ * visible to the consumer with {@link #publish(int, int)}. Because the 
+ * first slot gets published last, the changes are always applied within
+ * the same block. Hosts often change parameters on the audio thread, so
+ * the producers don't use a lock either.
+ * 
+ * @author Matthias Birschl
+ */
+class ParameterQueue {
+
+	/**
+	 * The maximum number of changes in the queue. Must be a power of two.
+	 */
+	private static final int CAPACITY = 1024;
+	private static final int MASK = CAPACITY - 1;
+
+	/**
+	 * The numbers of the changed parameters
+	 */
+	private final int[] parameters = new int[CAPACITY];
+	private final float[] values = new float[CAPACITY];
+
+	/**
+	 * The position of the change in each slot, which is written when the 
+	 * change is published. A slot contains a change for the consumer, if 
+	 * this position matches the position of the consumer.
+	 */
+	private final AtomicIntegerArray published = new AtomicIntegerArray(CAPACITY);
+
+	/**
+	 * The position of the next change, that is read by the consumer
+	 */
+	private volatile int head = 0;
+
+	/**
+	 * The position after the last slot, that was reserved by a producer
+	 */
+	private final AtomicInteger tail = new AtomicInteger();
+
+	/**
+	 * True, if changes were dropped because the queue was full. Then the
+	 * consumer has to read all parameters again.
+	 */
+	private final AtomicBoolean overflow = new AtomicBoolean();
+
+	public ParameterQueue(){
+		// The slots contain positions of the lap before the first one
+		for(int i = 0; i < CAPACITY; i++){
+			published.set(i, i - CAPACITY);
+		}
+	}
+
+	/**
+	 * Reserves the slots for the given number of changes. If the queue is 
+	 * full, the changes are dropped and the consumer gets told with the 
+	 * overflow flag.
+	 * @param changes The number of changes, that belong together
+	 * @return The position of the first slot or -1, if the queue is full
+	 */
+	public int reserve(final int changes){
+		while(true){
+			final int position = tail.get();
+			if(position + changes - head > CAPACITY){
+				overflow.set(true);
+				return -1;
+			}
+			if(tail.compareAndSet(position, position + changes)){
+				return position;
+			}
+		}
+	}
+
+	/**
+	 * Writes a parameter change into a reserved slot. The change is not 
+	 * visible to the consumer until {@link #publish(int, int)} gets called.
+	 * @param position The position of the slot
+	 * @param parameter The number of the parameter
+	 * @param value The new value of the parameter
+	 */
+	public void set(final int position, final int parameter, final float value){
+		parameters[position & MASK] = parameter;
+		values[position & MASK] = value;
+	}
+
+	/**
+	 * Makes the changes in the given reserved slots visible to the consumer.
+	 * The first slot gets published last, so the consumer sees all or 
+	 * none of the changes.
+	 * @param position The position of the first slot
+	 * @param changes The number of reserved slots
+	 */
+	public void publish(final int position, final int changes){
+		for(int i = changes - 1; i >= 0; i--){
+			published.set((position + i) & MASK, position + i);
+		}
+	}
+
+	/**
+	 * Returns true, if changes were dropped since the last call of this 
+	 * method. Just used by the consumer.
+	 */
+	public boolean takeOverflow(){
+		return overflow.getAndSet(false);
+	}
+
+	/**
+	 * Returns true, if no published change is in the queue. A change, 
+	 * whose slot is still written by a producer, stops the consumer 
+	 * until the next block.
+	 */
+	public boolean isEmpty(){
+		final int position = head;
+		return published.get(position & MASK) != position;
+	}
+
+	/**
+	 * Returns the number of the next changed parameter. The queue must not be empty.
+	 */
+	public int peekParameter(){
+		return parameters[head & MASK];
+	}
+
+	/**
+	 * Returns the value of the next change. The queue must not be empty.
+	 */
+	public float peekValue(){
+		return values[head & MASK];
+	}
+
+	/**
+	 * Removes the next change from the queue. The queue must not be empty.
+	 */
+	public void remove(){
+		head++;
+	}
+}
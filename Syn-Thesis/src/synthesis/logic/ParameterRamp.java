@@ -0,0 +1,148 @@
+/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
+ * 
+ * This file is part of SynThesis.
+ * SynThesis is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package synthesis.logic;
+
+import synthesis.util.Constants;
+
+/**
+ * A parameter, that follows a new value with a linear ramp instead of 
+ * jumping to it, because a jump causes clicks and fast changes cause
+ * zipper noise. The new value can be set by any thread. The ramp is 
+ * advanced by the audio thread at the start of each block, so the values
+ * of the block are interpolated from {@link #getStartValue()} to 
+ * {@link #getValue()}.
+ * 
+ * @author Matthias Birschl
+ */
+class ParameterRamp {
+
+	/**
+	 * The value, to which the ramp leads
+	 */
+	private volatile float target;
+
+	/**
+	 * True, if the next block should start with the target value without a ramp
+	 */
+	private volatile boolean jump = false;
+
+	// These fields are just used by the audio thread
+	private float startValue;
+	private float value;
+	private float rampTarget;
+	private float step = 0;
+	private int remainingFrames = 0;
+
+	/**
+	 * Creates a parameter with the given value
+	 */
+	public ParameterRamp(final float value){
+		target = value;
+		startValue = value;
+		this.value = value;
+		rampTarget = value;
+	}
+
+	/**
+	 * Sets the parameter to the given value at the start of the next block 
+	 * without a ramp
+	 */
+	public void set(final float newValue){
+		target = newValue;
+		jump = true;
+	}
+
+	/**
+	 * Lets the parameter move to the given value within 
+	 * {@link Constants#PARAMETER_RAMP_TIME} ms. 
+	 */
+	public void rampTo(final float newValue){
+		target = newValue;
+	}
+
+	/**
+	 * Sets the parameter to the given value at once, without waiting for
+	 * the next block. Must only be called by the thread, that advances the ramp.
+	 */
+	public void reset(final float newValue){
+		target = newValue;
+		jump = false;
+		startValue = newValue;
+		value = newValue;
+		rampTarget = newValue;
+		remainingFrames = 0;
+	}
+
+	/**
+	 * Advances the ramp to the end of the next block. This has to be
+	 * called by the audio thread before the block gets rendered.
+	 * @param frames The number of frames of the block
+	 */
+	public void advance(final int frames){
+
+		if(jump){
+			jump = false;
+			value = target;
+			rampTarget = value;
+			remainingFrames = 0;
+		}
+		startValue = value;
+
+		final float newTarget = target;
+		if(newTarget != rampTarget){
+			// A new ramp starts from the current value, so the ramp time 
+			// stays the same, even if the target changes within a ramp
+			rampTarget = newTarget;
+			remainingFrames = (int)(VST_Adapter.getCurrentSampleRate() * Constants.PARAMETER_RAMP_TIME / 1000);
+			if(remainingFrames < 1){
+				remainingFrames = 1;
+			}
+			step = (newTarget - value) / remainingFrames;
+		}
+
+		if(remainingFrames > 0){
+			if(frames >= remainingFrames){
+				value = rampTarget;
+				remainingFrames = 0;
+			}else{
+				value += step * frames;
+				remainingFrames -= frames;
+			}
+		}
+	}
+
+	/**
+	 * Returns the value, to which this parameter was set
+	 */
+	public float getTarget(){
+		return target;
+	}
+
+	/**
+	 * Returns the value at the start of the current block
+	 */
+	public float getStartValue(){
+		return startValue;
+	}
+
+	/**
+	 * Returns the value at the end of the current block
+	 */
+	public float getValue(){
+		return value;
+	}
+}
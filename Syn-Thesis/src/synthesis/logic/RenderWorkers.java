@@ -0,0 +1,228 @@
+/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
+ * 
+ * This file is part of SynThesis.
+ * SynThesis is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package synthesis.logic;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A small pool of worker threads, which render the notes of a block 
+ * together with the audio thread of the host. The threads spin while they 
+ * wait for the next block instead of waiting on a monitor, so they start 
+ * without the delay of a wake up. If no block comes for a while, they 
+ * park until the audio thread wakes them up with the next block, so an 
+ * idle plugin doesn't occupy whole cores. The audio thread hands out the notes with
+ * an atomic counter and waits until an atomic counter of the finished notes
+ * reaches the number of notes. So it never gets blocked by a lock, and it
+ * renders notes itself, until all notes are taken.
+ * 
+ * @author Matthias Birschl
+ *
+ */
+class RenderWorkers {
+
+	/**
+	 * The time in ns after the last block, after which a worker stops 
+	 * spinning and parks. It is longer than the blocks of the usual 
+	 * buffer sizes, so the workers keep spinning while notes are played.
+	 */
+	private static final long SPIN_TIME = TimeUnit.MILLISECONDS.toNanos(20);
+
+	/**
+	 * The longest time in ns, that a parked worker sleeps without 
+	 * checking for a new block
+	 */
+	private static final long PARK_TIME = TimeUnit.MILLISECONDS.toNanos(100);
+
+	private final Synthesizer synth;
+	private final Thread[] threads;
+	private final Worker[] workers;
+
+	private volatile boolean running = true;
+
+	/**
+	 * Gets incremented by the audio thread for each block
+	 */
+	private volatile int generation = 0;
+
+	/**
+	 * The generation of the current block in the upper 32 bits, the number
+	 * of notes of the block in the next 16 bits and the index of the next 
+	 * note, which isn't taken by a thread yet, in the lower 16 bits. 
+	 * A thread, which is still busy with an old block, can't take a note 
+	 * of the new block, because the generation doesn't match. Because the
+	 * number of notes is part of the same value, a thread can't compare 
+	 * the index of one block with the number of notes of another block.
+	 */
+	private final AtomicLong nextVoice = new AtomicLong();
+
+	/**
+	 * The number of notes of the current block, that are rendered
+	 */
+	private final AtomicInteger finishedVoices = new AtomicInteger();
+
+	/**
+	 * The number of frames of the current block. It is written before the 
+	 * block is published with {@link #nextVoice}, and it doesn't change 
+	 * until all notes of the block are rendered. So it is valid for a 
+	 * thread, which has taken a note of the block.
+	 */
+	private int frames = 0;
+
+	/**
+	 * Creates and starts the worker threads
+	 * @param synth The synthesizer, whose notes get rendered
+	 * @param numThreads The number of worker threads besides the audio thread
+	 */
+	RenderWorkers(final Synthesizer synth, final int numThreads){
+		this.synth = synth;
+		threads = new Thread[numThreads];
+		workers = new Worker[numThreads];
+		for(int i = 0; i < numThreads; i++){
+			workers[i] = new Worker();
+			threads[i] = new Thread(workers[i], "Syn-Thesis render worker " + (i + 1));
+			threads[i].setDaemon(true);
+			threads[i].setPriority(Thread.MAX_PRIORITY);
+			threads[i].start();
+		}
+	}
+
+	/**
+	 * Renders the given number of active notes with the worker threads
+	 * and the calling thread. Returns when all notes are rendered.
+	 * @see Synthesizer#renderVoice(int, int)
+	 */
+	void render(final int numVoices, final int frames){
+
+		final int newGeneration = generation + 1;
+		this.frames = frames;
+		finishedVoices.set(0);
+		nextVoice.set((long)newGeneration << 32 | (long)numVoices << 16);
+		generation = newGeneration;
+
+		wakeUpWorkers();
+		renderVoices(newGeneration);
+
+		while(finishedVoices.get() < numVoices){
+			// Spin until the workers have finished their last notes
+			Thread.onSpinWait();
+		}
+	}
+
+	/**
+	 * Unparks the workers, which sleep because they got no block for a while.
+	 * A worker sets its flag before it checks the generation a last time, 
+	 * and the generation is written before the flags are read, so a worker 
+	 * can't miss a new block.
+	 */
+	private void wakeUpWorkers(){
+		for(int i = 0; i < workers.length; i++){
+			if(workers[i].isParked){
+				LockSupport.unpark(threads[i]);
+			}
+		}
+	}
+
+	/**
+	 * Renders notes, until all notes of the given block are taken
+	 * @param blockGeneration The generation of the block, which was read
+	 * before this call
+	 */
+	private void renderVoices(final int blockGeneration){
+
+		int voice = takeVoice(blockGeneration);
+		while(voice >= 0){
+			// The block can't end before this note is finished, 
+			// so the frames belong to the block of the note
+			synth.renderVoice(voice, frames);
+			finishedVoices.incrementAndGet();
+			voice = takeVoice(blockGeneration);
+		}
+	}
+
+	/**
+	 * Returns the index of the next note of the given block, which isn't 
+	 * taken yet, or -1 if all notes are taken or the block is over
+	 */
+	private int takeVoice(final int blockGeneration){
+		while(true){
+			final long current = nextVoice.get();
+			final int index = (int)current & 0xffff;
+			final int blockVoices = (int)current >>> 16;
+			if((int)(current >>> 32) != blockGeneration || index >= blockVoices){
+				return -1;
+			}
+			if(nextVoice.compareAndSet(current, current + 1)){
+				return index;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of worker threads besides the audio thread
+	 */
+	int getNumThreads(){
+		return threads.length;
+	}
+
+	/**
+	 * Stops the worker threads after they have finished the current block
+	 */
+	void shutdown(){
+		running = false;
+		for(int i = 0; i < threads.length; i++){
+			LockSupport.unpark(threads[i]);
+		}
+	}
+
+	/**
+	 * Waits for new blocks and helps to render their notes
+	 */
+	private class Worker implements Runnable {
+
+		/**
+		 * True, while this worker is parked or about to park
+		 */
+		volatile boolean isParked = false;
+
+		@Override
+		public void run(){
+
+			int lastGeneration = generation;
+			long lastBlockTime = System.nanoTime();
+
+			while(running){
+				final int currentGeneration = generation;
+				if(currentGeneration != lastGeneration){
+					lastGeneration = currentGeneration;
+					renderVoices(currentGeneration);
+					lastBlockTime = System.nanoTime();
+				}else if(System.nanoTime() - lastBlockTime < SPIN_TIME){
+					Thread.onSpinWait();
+				}else{
+					isParked = true;
+					if(generation == lastGeneration && running){
+						LockSupport.parkNanos(this, PARK_TIME);
+					}
+					isParked = false;
+				}
+			}
+		}
+	}
+}
@@ -1,364 +1,843 @@
-/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
- * 
- * This file is part of SynThesis.
- * SynThesis is free software: you can redistribute it and/or modify
- * it under the terms of the GNU General Public License as published by
- * the Free Software Foundation, either version 3 of the License, or
- * (at your option) any later version.
- *
- * This program is distributed in the hope that it will be useful,
- * but WITHOUT ANY WARRANTY; without even the implied warranty of
- * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
- * GNU General Public License for more details.
- *
- * You should have received a copy of the GNU General Public License
- * along with this program.  If not, see <http://www.gnu.org/licenses/>.
- */
-package synthesis.logic;
-
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Observable;
-import org.apache.log4j.Logger;
-
-import synthesis.db.DAOfactory;
-import synthesis.db.GenericDAO;
-import synthesis.util.Constants;
-import synthesis.util.LoggerFactory;
-
-/**
- * This class represents an synthesizer with his oscillators, envelopes and other 
- * components. Usually only one instance of this class should exist per 
- * plugin instance
- * @author Matthias Birschl
- */
-public class Synthesizer extends Observable {
-
-	private final Oscillator[] oscillators = new Oscillator[4];
-
-	private static Logger log = LoggerFactory.getLogger(Synthesizer.class);
-
-	private static List<Preset> presets = new ArrayList<Preset>();
-
-	private float pitch = 1;
-
-	/**
-	 * Parameter for the observers. This parameter means, that
-	 * the synthesizer changed the first time after the plugin
-	 * was started and the presets was read from the db.
-	 */
-	public final static String INIT_LOADING_FINISHED = "INIT_LOADING_FINISHED";
-	
-	/**
-	 * Is true after the {@link PresetLoader} started the first time.
-	 * Other plugin instances use this to detect, that the presets are already
-	 * loaded from the db
-	 */
-	private static boolean presetLoaderStarted = false; 
-	
-	/**
-	 * Other plugin instances waiting for the presets until this gets true
-	 */
-	private static boolean presetLoaderFinished = false;
-
-	private final LinkedHashMap<Integer, Note> notes = new LinkedHashMap<Integer, Note>(16, 1);
-
-
-	public Synthesizer(){
-
-		for(int i = 0; i < Constants.NUM_OSCILLATORS; i++){
-			
-			final Oscillator osc = new Oscillator();
-			// some initial values
-			osc.getEnvelope().setADSR(1, 51, 0.8f, 500);	
-
-			oscillators[i] =  osc;
-		}
-
-		final PresetLoader loader = new PresetLoader();
-		loader.start();
-
-	}
-
-	/**
-	 * Turns a {@link Note} of the given MIDI-number on (starts playing the note) 
-	 * with the given velocity
-	 * @param midiNote The MIDI-number of the note
-	 * @param velocity A value between 0 and 1
-	 * @see #noteOff(int midiNote)
-	 */
-	public void noteOn(final int midiNote, final float velocity){
-
-		// if the same note is currently playing
-		if(notes.get(midiNote) != null){ 									
-			notes.get(midiNote).reset(velocity);
-		}
-		else{
-			final Note note = new Note(midiNote, velocity, this);
-			notes.put(midiNote, note);
-		}
-
-	}
-
-	/**
-	 * Turns a {@link Note} off (stops playing the note) which
-	 * was turned on before.  
-	 * @param midiNote The MIDI-number of the note
-	 * @see #noteOn(int midiNote, float velocity)
-	 */
-	public void noteOff(final int midiNote){
-
-		if(notes.containsKey(midiNote)){
-			notes.get(midiNote).setReleasing();
-		}
-
-	}
-
-	/**
-	 * Returns the next sample of the waveform, that this synthesizer
-	 * is playing
-	 * @return A value between -1 and 1
-	 */
-	public float getNextSample(){
-		float sample = 0;
-
-		final Iterator<Note> itr = notes.values().iterator();
-		while(itr.hasNext()){
-			final Note note = itr.next();
-			if(note.isFinihed){
-				itr.remove();
-			}else{
-				sample += note.getNextSample();
-			}
-
-		}
-
-		return sample;
-	}
-
-	/**
-	 * Returns the {@link Oscillator} on the given index
-	 * @param index The index of the oscillator. as an 
-	 * value between 0 and {@link Constants#NUM_OSCILLATORS}
-	 */
-	public Oscillator getOscillator(final int index){
-		return oscillators[index];
-	}
-
-	/**
-	 * Sets the global pitch of the synthesizer.
-	 * 
-	 * @return A factor>0. For example: 
-	 * 0.5	= -1 octave 
-	 * 1	= nothing (default pitch) 
-	 * 2	= +1 octave 4 = +2 octaves
-	 */
-	public float getPitch(){
-		return pitch;
-	}
-
-	/**
-	 * Sets the global pitch of the synthesizer.
-	 * @param pitch A factor>0. For example:
-	 * 0.5  = -1 octave
-	 * 1	= nothing (default pitch)
-	 * 2	= +1 octave
-	 * 4	= +2 octaves  
-	 */
-	public void setPitch(final float pitch){
-		this.pitch = pitch;
-	}
-
-	/**
-	 * Returns all available presets
-	 */
-	public List<Preset> getPresets(){
-		Collections.sort(presets);
-		return presets;
-	}
-
-	
-	/**
-	 * Writes the current state of the model to the given preset
-	 * and save the preset in the database.
-	 */
-	public void savePreset(final Preset preset){
-
-		preset.fetchValues(this);
-		final GenericDAO dao = DAOfactory.createDAO();
-		boolean ok = false;
-		try{
-			dao.beginTransaction();
-			dao.save(preset);
-			ok = true;
-		}catch(final Exception e){
-			ok = false;
-			log.error("Transaction error", e);
-		}finally{
-			dao.endTransaction(ok);
-		}
-	}
-
-	/**
-	 * Sets the active preset. Overrides the current settings of the model
-	 * with the values of the given preset. After this, the observers of the model gets 
-	 * notified.
-	 */
-	public void setActivePreset(final Preset preset){
-
-		preset.writeValues(this);
-
-	}
-
-	/**
-	 * Saves the current state of the model to an new preset with
-	 * the given name to the database.
-	 * @param name The name of the new preset
-	 */
-	public Preset savePresetAs(final String name){
-
-		final Preset newPreset = new Preset();
-		newPreset.setName(name);
-		newPreset.fetchValues(this);
-
-		setActivePreset(newPreset);
-
-		presets.add(newPreset);
-		super.setChanged();
-		notifyObservers(newPreset);
-
-		final GenericDAO dao = DAOfactory.createDAO();
-		boolean ok = false;
-		try{
-			dao.beginTransaction();
-			dao.insert(newPreset);
-			ok = true;
-		}catch(final Exception e){
-			ok = false;
-			log.error("Transaction error", e);
-		}finally{
-			dao.endTransaction(ok);
-		}
-
-		return newPreset;
-	}
-
-	/**
-	 * Deletes the given preset from the model and from the database
-	 */
-	public void deletePreset(final Preset preset){
-
-		if(preset == null){
-			return;
-		}
-		presets.remove(preset);
-		setChanged();
-
-		boolean ok = false;
-		final GenericDAO dao = DAOfactory.createDAO();
-		try{
-			dao.beginTransaction();
-			dao.delete(preset);
-			ok = true;
-		}catch(final Exception e){
-			ok = false;
-			log.error("Transaction error", e);
-		}finally{
-			dao.endTransaction(ok);
-		}
-
-	}
-	
-	/**
-	 * Notifies all observers, that this oscillator has changed
-	 */
-	@Override
-	public void setChanged(){
-		super.setChanged();
-		notifyObservers();
-
-	}
-
-	/**
-	 * On startup of the first plugin instance in a host, it takes some time
-	 * until the database connection is established. So that the plugin don't
-	 * have to wait until the user can use it, the database loading is processed
-	 * in a extra thread.
-	 * 
-	 * This class also ensures, that only the first loaded plugin instance load
-	 * the presets from the db and shares them to other plugin instances
-	 * 
-	 * @author Matthias Birschl
-	 * 
-	 */
-	private class PresetLoader extends Thread {
-
-		@Override
-		public void run(){
-
-			log.debug("presetloader started");
-
-			if(!presetLoaderStarted){ // Presets may loaded just once for all
-										// plugin instances
-				presetLoaderStarted = true;
-				fetchPresetsFromDB();
-			}else{
-				waitForPresets();
-			}
-
-			log.debug("presetloader finish");
-
-		}
-
-		/**
-		 * Fetches all presets from the database and notify the observers of the
-		 * top level class {@link Synthesizer}. The loaded presets are provided to all
-		 * plugin instances over an static field in the top level class
-		 */
-		private void fetchPresetsFromDB(){
-			boolean ok = false;
-
-			final GenericDAO dao = DAOfactory.createDAO();
-
-			try{
-				dao.beginTransaction();
-				presets = dao.findAll(Preset.class);
-				ok = true;
-			}catch(final Exception e){
-				ok = false;
-				log.error("Transaction error", e);
-			}finally{
-				dao.endTransaction(ok);
-			}
-			setChanged();
-		
-			presetLoaderFinished = true;
-		}
-
-		/**
-		 * If more than one instances of this VST plugin are loaded into the
-		 * host at the same time, then only one plugin instance fetches the data
-		 * from the database and shares it via static fields to the other
-		 * instances. This method waits, until the preset are loaded from the
-		 * database. It checks every second, if the presets are now available.
-		 * When the presets are available, the obervers of the top level class
-		 * {@link Synthesizer} gets notified.
-		 */
-		private void waitForPresets(){
-			while(!presetLoaderFinished){
-				try{
-					Thread.sleep(1000);
-				}catch(final InterruptedException e){
-					log.error("Error while waiting for preset loading", e);
-				}
-			}
-			setChanged();
-
-		}
-
-	}
-
-}
+/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
+ * 
+ * This file is part of SynThesis.
+ * SynThesis is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package synthesis.logic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.apache.log4j.Logger;
+
+import synthesis.db.DAOfactory;
+import synthesis.db.GenericDAO;
+import synthesis.util.Constants;
+import synthesis.util.LoggerFactory;
+
+/**
+ * This class represents an synthesizer with his oscillators, envelopes and other 
+ * components. Usually only one instance of this class should exist per 
+ * plugin instance
+ * @author Matthias Birschl
+ */
+public class Synthesizer extends ObservableModel {
+
+	private final Oscillator[] oscillators = new Oscillator[4];
+
+	/**
+	 * The changes of the oscillator and envelope parameters, which
+	 * the audio thread applies at the start of each block
+	 */
+	private final ParameterQueue parameterChanges = new ParameterQueue();
+
+	private static Logger log = LoggerFactory.getLogger(Synthesizer.class);
+
+	private static List<Preset> presets = new ArrayList<Preset>();
+
+	private float pitch = 1;
+
+	/**
+	 * One bit for each oscillator, that has a waveform and a volume above
+	 * zero. Is updated at the start of each block, so the notes skip the
+	 * silent oscillators.
+	 */
+	private int activeOscillators = 0;
+
+	/**
+	 * One bit for each oscillator, that has a waveform. The envelopes of
+	 * these oscillators keep running, even if the volume is zero, and 
+	 * decide, when a note is finished.
+	 */
+	private int waveFormOscillators = 0;
+
+	/**
+	 * Parameter for the observers. This parameter means, that
+	 * the synthesizer changed the first time after the plugin
+	 * was started and the presets was read from the db.
+	 */
+	public final static String INIT_LOADING_FINISHED = "INIT_LOADING_FINISHED";
+	
+	/**
+	 * Is true after the {@link PresetLoader} started the first time.
+	 * Other plugin instances use this to detect, that the presets are already
+	 * loaded from the db
+	 */
+	private static boolean presetLoaderStarted = false; 
+	
+	/**
+	 * Other plugin instances waiting for the presets until this gets true
+	 */
+	private static boolean presetLoaderFinished = false;
+
+	/**
+	 * The preallocated notes, that can be played by this synthesizer
+	 */
+	private final VoicePool voices;
+
+	/**
+	 * Scratch buffers for the block rendering of one note. They grow with the
+	 * largest block size, that was requested by the host.
+	 */
+	private float[] voiceBuffer = new float[1024];
+	private float[] envBuffer = new float[1024];
+
+	/**
+	 * The output and scratch buffers of each note for the parallel rendering.
+	 * They are created on the first parallel rendering or with the worker
+	 * threads of the real-time rendering.
+	 */
+	private float[][] parallelOutputs = new float[1][0];
+	private float[][] parallelVoiceBuffers = new float[1][0];
+	private float[][] parallelEnvBuffers = new float[1][0];
+
+	/**
+	 * The number of notes, that a task of the parallel rendering 
+	 * processes at least
+	 */
+	private static final int VOICES_PER_TASK = 2;
+
+	/**
+	 * The worker threads of the real-time rendering, or null if the
+	 * notes are rendered by the audio thread alone
+	 */
+	private volatile RenderWorkers renderWorkers = null;
+
+	/**
+	 * Below this number of notes, the handover to the worker threads
+	 * costs more than it saves
+	 */
+	private static final int MIN_PARALLEL_VOICES = 8;
+
+	/**
+	 * The arrays, with which the audio thread renders all notes together, 
+	 * or null if it renders one note after another
+	 * @see #setStructureOfArrays(boolean)
+	 */
+	private volatile VoiceArrays voiceArrays = null;
+
+	/**
+	 * The sample rate, for which the waveforms and envelopes should be 
+	 * calculated. The {@link SampleRateUpdater} rebuilds them, until they
+	 * match the latest rate.
+	 */
+	private volatile float sampleRate = VST_Adapter.getCurrentSampleRate();
+
+
+	public Synthesizer(){
+		this(true);
+	}
+
+	/**
+	 * Creates a synthesizer, which doesn't load the presets from the 
+	 * database, for example for tests or the offline rendering
+	 */
+	public static Synthesizer createWithoutPresets(){
+		return new Synthesizer(false);
+	}
+
+	/**
+	 * @param loadPresets If false, the presets are not loaded from the 
+	 * database, for example if the synthesizer is used without UI
+	 */
+	Synthesizer(final boolean loadPresets){
+
+		for(int i = 0; i < Constants.NUM_OSCILLATORS; i++){
+			
+			final Oscillator osc = new Oscillator();
+			// some initial values
+			osc.getEnvelope().setADSR(1, 51, 0.8f, 500);	
+			osc.setParameterQueue(parameterChanges, i * Oscillator.NUM_PARAMETERS);
+
+			oscillators[i] =  osc;
+		}
+
+		voices = new VoicePool(this);
+
+		if(loadPresets){
+			final PresetLoader loader = new PresetLoader();
+			loader.start();
+		}
+
+	}
+
+	/**
+	 * Turns a {@link Note} of the given MIDI-number on (starts playing the note) 
+	 * with the given velocity
+	 * @param midiNote The MIDI-number of the note
+	 * @param velocity A value between 0 and 1
+	 * @see #noteOff(int midiNote)
+	 */
+	public void noteOn(final int midiNote, final float velocity){
+
+		final Note note = voices.get(midiNote);
+
+		// if the same note is currently playing
+		if(note != null){
+			note.retrigger(velocity);
+			voices.retrigger(midiNote);
+		}
+		else{
+			voices.activate(midiNote, velocity);
+		}
+
+	}
+
+	/**
+	 * Turns a {@link Note} off (stops playing the note) which
+	 * was turned on before.  
+	 * @param midiNote The MIDI-number of the note
+	 * @see #noteOn(int midiNote, float velocity)
+	 */
+	public void noteOff(final int midiNote){
+
+		final Note note = voices.get(midiNote);
+		if(note != null){
+			note.setReleasing();
+		}
+
+	}
+
+	/**
+	 * Returns the next sample of the waveform, that this synthesizer
+	 * is playing
+	 * @return A value between -1 and 1
+	 */
+	public float getNextSample(){
+		float sample = 0;
+
+		startBlock(1);
+		voices.removeFinished();
+		for(int i = 0; i < voices.size(); i++){
+			sample += voices.getActive(i).getNextSample();
+		}
+
+		return sample;
+	}
+
+	/**
+	 * Renders the next frames of the waveform, that this synthesizer is
+	 * playing. All notes are processed one after another over the
+	 * whole block instead of sample by sample, which is much cheaper
+	 * than calling {@link #getNextSample()} for each frame.
+	 * @param left The buffer of the left channel
+	 * @param right The buffer of the right channel
+	 * @param offset The index of the first frame in the buffers
+	 * @param frames The number of frames to render
+	 */
+	public void render(final float[] left, final float[] right, final int offset, final int frames){
+
+		startBlock(frames);
+		voices.removeFinished();
+
+		final RenderWorkers workers = renderWorkers;
+		if(workers != null && voices.size() >= MIN_PARALLEL_VOICES && frames <= parallelOutputs[0].length){
+			workers.render(voices.size(), frames);
+			mixVoices(left, right, offset, frames, voices.size());
+			return;
+		}
+
+		renderSerial(left, right, offset, frames);
+	}
+
+	/**
+	 * Renders all notes one after another by the calling thread
+	 */
+	private void renderSerial(final float[] left, final float[] right, final int offset, final int frames){
+
+		final VoiceArrays arrays = voiceArrays;
+		if(arrays != null){
+			arrays.begin(frames);
+			for(int i = 0; i < voices.size(); i++){
+				voices.getActive(i).prepare(arrays, frames);
+			}
+			arrays.render(left, offset);
+			System.arraycopy(left, offset, right, offset, frames);
+			return;
+		}
+
+		for(int i = offset; i < offset + frames; i++){
+			left[i] = 0;
+		}
+
+		if(frames > voiceBuffer.length){
+			voiceBuffer = new float[frames];
+			envBuffer = new float[frames];
+		}
+
+		for(int i = 0; i < voices.size(); i++){
+			voices.getActive(i).render(left, offset, frames, voiceBuffer, envBuffer);
+		}
+
+		System.arraycopy(left, offset, right, offset, frames);
+	}
+
+	/**
+	 * Renders the next frames like {@link #render(float[], float[], int, int)},
+	 * but distributes the notes over the threads of the given pool. Each 
+	 * note is rendered into its own buffer, and the buffers are added up in
+	 * the same order as by the serial rendering, so the result is exactly 
+	 * the same. This is intended for the offline rendering, where blocks 
+	 * with many notes can be processed faster.
+	 * @param pool The pool, which renders the notes. If null or if there are
+	 * too few notes, the notes are rendered by the calling thread.
+	 */
+	public void render(final float[] left, final float[] right, final int offset, final int frames, final ForkJoinPool pool){
+
+		startBlock(frames);
+		voices.removeFinished();
+		final int numVoices = voices.size();
+		if(pool == null || numVoices < 2 * VOICES_PER_TASK){
+			renderSerial(left, right, offset, frames);
+			return;
+		}
+
+		if(frames > parallelOutputs[0].length){
+			createParallelBuffers(frames);
+		}
+
+		pool.invoke(new VoiceRenderTask(0, numVoices, frames));
+		mixVoices(left, right, offset, frames, numVoices);
+	}
+
+	/**
+	 * Applies the parameter changes, advances the volume and sustain ramps of the 
+	 * oscillators to the end of the next block and determines the 
+	 * oscillators, that contribute to the sound
+	 * @param frames The number of frames of the next block
+	 */
+	private void startBlock(final int frames){
+
+		applyParameterChanges();
+
+		int active = 0;
+		int withWaveForm = 0;
+		for(int i = 0; i < Constants.NUM_OSCILLATORS; i++){
+			final ParameterRamp volume = oscillators[i].getVolumeRamp();
+			volume.advance(frames);
+			oscillators[i].getEnvelope().advance(frames);
+			if(oscillators[i].hasWaveForm()){
+				withWaveForm |= 1 << i;
+				if(volume.getStartValue() > 0 || volume.getValue() > 0){
+					active |= 1 << i;
+				}
+			}
+		}
+		activeOscillators = active;
+		waveFormOscillators = withWaveForm;
+	}
+
+	/**
+	 * Applies all parameter changes of the {@link ParameterQueue}. 
+	 * Called by the audio thread before each block.
+	 */
+	private void applyParameterChanges(){
+
+		final ParameterQueue changes = parameterChanges;
+		final boolean overflow = changes.takeOverflow();
+		if(changes.isEmpty() && !overflow){
+			return;
+		}
+
+		while(!changes.isEmpty()){
+			final int parameter = changes.peekParameter();
+			oscillators[parameter / Oscillator.NUM_PARAMETERS].apply(parameter % Oscillator.NUM_PARAMETERS, changes.peekValue());
+			changes.remove();
+		}
+
+		// Some changes were dropped, so all parameters have to be read again
+		if(overflow){
+			for(int i = 0; i < Constants.NUM_OSCILLATORS; i++){
+				oscillators[i].resync();
+			}
+		}
+
+		for(int i = 0; i < Constants.NUM_OSCILLATORS; i++){
+			oscillators[i].getEnvelope().update();
+		}
+	}
+
+	/**
+	 * Returns one bit for each oscillator, that has a waveform and a volume 
+	 * above zero in the current block. Bit 0 is the first oscillator.
+	 */
+	int getActiveOscillators(){
+		return activeOscillators;
+	}
+
+	/**
+	 * Returns one bit for each oscillator, that has a waveform in the 
+	 * current block, whatever its volume is
+	 */
+	int getWaveFormOscillators(){
+		return waveFormOscillators;
+	}
+
+	/**
+	 * Renders the active note with the given index into its own output buffer
+	 * of the parallel rendering
+	 */
+	void renderVoice(final int voice, final int frames){
+		final float[] output = parallelOutputs[voice];
+		for(int j = 0; j < frames; j++){
+			output[j] = 0;
+		}
+		voices.getActive(voice).render(output, 0, frames, parallelVoiceBuffers[voice], parallelEnvBuffers[voice]);
+	}
+
+	/**
+	 * Adds up the output buffers of the parallel rendering in the order
+	 * of the notes, so that the result is the same as by the serial rendering
+	 */
+	private void mixVoices(final float[] left, final float[] right, final int offset, final int frames, final int numVoices){
+
+		for(int i = offset; i < offset + frames; i++){
+			left[i] = 0;
+		}
+		for(int voice = 0; voice < numVoices; voice++){
+			final float[] output = parallelOutputs[voice];
+			for(int j = 0; j < frames; j++){
+				left[offset + j] += output[j];
+			}
+		}
+
+		System.arraycopy(left, offset, right, offset, frames);
+	}
+
+	/**
+	 * Creates the buffers of the parallel rendering for all notes
+	 */
+	private void createParallelBuffers(final int frames){
+		final int size = Math.max(frames, voiceBuffer.length);
+		parallelVoiceBuffers = new float[VoicePool.NUM_MIDI_NOTES][size];
+		parallelEnvBuffers = new float[VoicePool.NUM_MIDI_NOTES][size];
+		parallelOutputs = new float[VoicePool.NUM_MIDI_NOTES][size];
+	}
+
+	/**
+	 * Sets the number of threads, which render the notes together with the
+	 * audio thread of the host. The threads spin while they wait for the next
+	 * block, so each of them occupies a core while notes are played. They 
+	 * park, if no block comes for a while. Blocks with less than a few
+	 * notes are still rendered by the audio thread alone. This must not be
+	 * called by the audio thread.
+	 * @param threads The number of additional threads. 0 renders all notes
+	 * with the audio thread of the host.
+	 */
+	public void setRenderThreads(final int threads){
+
+		final RenderWorkers oldWorkers = renderWorkers;
+		if(threads > 0){
+			if(parallelOutputs[0].length == 0){
+				createParallelBuffers(voiceBuffer.length);
+			}
+			renderWorkers = new RenderWorkers(this, threads);
+		}else{
+			renderWorkers = null;
+		}
+		if(oldWorkers != null){
+			oldWorkers.shutdown();
+		}
+	}
+
+	/**
+	 * Returns the number of threads, which render the notes together with the
+	 * audio thread of the host
+	 */
+	public int getRenderThreads(){
+		final RenderWorkers workers = renderWorkers;
+		return workers != null ? workers.getNumThreads() : 0;
+	}
+
+	/**
+	 * Switches the rendering by the calling thread between the note objects
+	 * and a structure of arrays. With the arrays, the notes only run their
+	 * envelopes, and their oscillators get rendered together in one pass 
+	 * over the block. Both produce exactly the same samples. The worker 
+	 * threads and the parallel offline rendering always render the note 
+	 * objects.
+	 * @param enabled True to render with the arrays
+	 */
+	public void setStructureOfArrays(final boolean enabled){
+		voiceArrays = enabled ? new VoiceArrays() : null;
+	}
+
+	/**
+	 * Returns true, if the calling thread renders the notes with a
+	 * structure of arrays
+	 * @see #setStructureOfArrays(boolean)
+	 */
+	public boolean isStructureOfArrays(){
+		return voiceArrays != null;
+	}
+
+	/**
+	 * Adapts the waveforms and envelopes to a new sample rate. The rebuild
+	 * runs in an extra thread, so the caller doesn't have to wait for it. 
+	 * Until it is finished, the notes are played with the previous waveforms 
+	 * and envelope coefficients, but already with the pitch of the new rate.
+	 * @param sampleRate The new sample rate in Hz
+	 */
+	public void setSampleRate(final float sampleRate){
+		if(sampleRate == this.sampleRate){
+			return;
+		}
+		this.sampleRate = sampleRate;
+
+		final SampleRateUpdater updater = new SampleRateUpdater();
+		updater.setDaemon(true);
+		updater.start();
+	}
+
+	/**
+	 * Returns the sample rate, for which this synthesizer renders
+	 * @return The sample rate in Hz
+	 */
+	float getSampleRate(){
+		return sampleRate;
+	}
+
+	/**
+	 * Sets the maximum number of notes, that can be played at the same time.
+	 * If a note gets started while all voices are in use, another note 
+	 * gets stopped with a short fade out.
+	 * @param maxVoices A value between 1 and 128
+	 * @see #setVoiceStealing(VoiceStealing)
+	 */
+	public void setMaxVoices(final int maxVoices){
+		voices.setMaxVoices(maxVoices);
+	}
+
+	/**
+	 * Returns the maximum number of notes, that can be played at the same time.
+	 */
+	public int getMaxVoices(){
+		return voices.getMaxVoices();
+	}
+
+	/**
+	 * Sets the strategy, which selects the note that gets stopped, if the
+	 * maximum number of voices is reached
+	 */
+	public void setVoiceStealing(final VoiceStealing voiceStealing){
+		voices.setVoiceStealing(voiceStealing);
+	}
+
+	/**
+	 * Returns the strategy, which selects the note that gets stopped, if the
+	 * maximum number of voices is reached
+	 */
+	public VoiceStealing getVoiceStealing(){
+		return voices.getVoiceStealing();
+	}
+
+	/**
+	 * Returns how many notes were stopped since the start of the plugin,
+	 * because the maximum number of voices was reached
+	 */
+	public long getStolenVoiceCount(){
+		return voices.getStolenVoices();
+	}
+
+	/**
+	 * Returns the number of notes, that are currently playing
+	 */
+	public int getActiveVoiceCount(){
+		return voices.size();
+	}
+
+	/**
+	 * Returns the {@link Oscillator} on the given index
+	 * @param index The index of the oscillator. as an 
+	 * value between 0 and {@link Constants#NUM_OSCILLATORS}
+	 */
+	public Oscillator getOscillator(final int index){
+		return oscillators[index];
+	}
+
+	/**
+	 * Sets the global pitch of the synthesizer.
+	 * 
+	 * @return A factor>0. For example: 
+	 * 0.5	= -1 octave 
+	 * 1	= nothing (default pitch) 
+	 * 2	= +1 octave 4 = +2 octaves
+	 */
+	public float getPitch(){
+		return pitch;
+	}
+
+	/**
+	 * Sets the global pitch of the synthesizer.
+	 * @param pitch A factor>0. For example:
+	 * 0.5  = -1 octave
+	 * 1	= nothing (default pitch)
+	 * 2	= +1 octave
+	 * 4	= +2 octaves  
+	 */
+	public void setPitch(final float pitch){
+		this.pitch = pitch;
+	}
+
+	/**
+	 * Returns all available presets
+	 */
+	public List<Preset> getPresets(){
+		Collections.sort(presets);
+		return presets;
+	}
+
+	
+	/**
+	 * Writes the current state of the model to the given preset
+	 * and save the preset in the database.
+	 */
+	public void savePreset(final Preset preset){
+
+		preset.fetchValues(this);
+		final GenericDAO dao = DAOfactory.createDAO();
+		boolean ok = false;
+		try{
+			dao.beginTransaction();
+			dao.save(preset);
+			ok = true;
+		}catch(final Exception e){
+			ok = false;
+			log.error("Transaction error", e);
+		}finally{
+			dao.endTransaction(ok);
+		}
+	}
+
+	/**
+	 * Sets the active preset. Overrides the current settings of the model
+	 * with the values of the given preset. After this, the observers of the model gets 
+	 * notified.
+	 */
+	public void setActivePreset(final Preset preset){
+
+		preset.writeValues(this);
+
+	}
+
+	/**
+	 * Saves the current state of the model to an new preset with
+	 * the given name to the database.
+	 * @param name The name of the new preset
+	 */
+	public Preset savePresetAs(final String name){
+
+		final Preset newPreset = new Preset();
+		newPreset.setName(name);
+		newPreset.fetchValues(this);
+
+		setActivePreset(newPreset);
+
+		presets.add(newPreset);
+		setChanged(newPreset);
+
+		final GenericDAO dao = DAOfactory.createDAO();
+		boolean ok = false;
+		try{
+			dao.beginTransaction();
+			dao.insert(newPreset);
+			ok = true;
+		}catch(final Exception e){
+			ok = false;
+			log.error("Transaction error", e);
+		}finally{
+			dao.endTransaction(ok);
+		}
+
+		return newPreset;
+	}
+
+	/**
+	 * Deletes the given preset from the model and from the database
+	 */
+	public void deletePreset(final Preset preset){
+
+		if(preset == null){
+			return;
+		}
+		presets.remove(preset);
+		setChanged();
+
+		boolean ok = false;
+		final GenericDAO dao = DAOfactory.createDAO();
+		try{
+			dao.beginTransaction();
+			dao.delete(preset);
+			ok = true;
+		}catch(final Exception e){
+			ok = false;
+			log.error("Transaction error", e);
+		}finally{
+			dao.endTransaction(ok);
+		}
+
+	}
+	
+
+	/**
+	 * On startup of the first plugin instance in a host, it takes some time
+	 * until the database connection is established. So that the plugin don't
+	 * have to wait until the user can use it, the database loading is processed
+	 * in a extra thread.
+	 * 
+	 * This class also ensures, that only the first loaded plugin instance load
+	 * the presets from the db and shares them to other plugin instances
+	 * 
+	 * @author Matthias Birschl
+	 * 
+	 */
+	private class PresetLoader extends Thread {
+
+		@Override
+		public void run(){
+
+			log.debug("presetloader started");
+
+			if(!presetLoaderStarted){ // Presets may loaded just once for all
+										// plugin instances
+				presetLoaderStarted = true;
+				fetchPresetsFromDB();
+			}else{
+				waitForPresets();
+			}
+
+			log.debug("presetloader finish");
+
+		}
+
+		/**
+		 * Fetches all presets from the database and notify the observers of the
+		 * top level class {@link Synthesizer}. The loaded presets are provided to all
+		 * plugin instances over an static field in the top level class
+		 */
+		private void fetchPresetsFromDB(){
+			boolean ok = false;
+
+			final GenericDAO dao = DAOfactory.createDAO();
+
+			try{
+				dao.beginTransaction();
+				presets = dao.findAll(Preset.class);
+				ok = true;
+			}catch(final Exception e){
+				ok = false;
+				log.error("Transaction error", e);
+			}finally{
+				dao.endTransaction(ok);
+			}
+			setChanged();
+		
+			presetLoaderFinished = true;
+		}
+
+		/**
+		 * If more than one instances of this VST plugin are loaded into the
+		 * host at the same time, then only one plugin instance fetches the data
+		 * from the database and shares it via static fields to the other
+		 * instances. This method waits, until the preset are loaded from the
+		 * database. It checks every second, if the presets are now available.
+		 * When the presets are available, the obervers of the top level class
+		 * {@link Synthesizer} gets notified.
+		 */
+		private void waitForPresets(){
+			while(!presetLoaderFinished){
+				try{
+					Thread.sleep(1000);
+				}catch(final InterruptedException e){
+					log.error("Error while waiting for preset loading", e);
+				}
+			}
+			setChanged();
+
+		}
+
+	}
+
+	/**
+	 * Renders a range of the active notes of the {@link VoicePool} into
+	 * their own output buffers. Large ranges are split into two tasks.
+	 * 
+	 * @author Matthias Birschl
+	 * 
+	 */
+	private class VoiceRenderTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int from;
+		private final int to;
+		private final int frames;
+
+		/**
+		 * @param from The index of the first active note
+		 * @param to The index after the last active note
+		 * @param frames The number of frames to render
+		 */
+		VoiceRenderTask(final int from, final int to, final int frames){
+			this.from = from;
+			this.to = to;
+			this.frames = frames;
+		}
+
+		@Override
+		protected void compute(){
+
+			if(to - from >= 2 * VOICES_PER_TASK){
+				final int middle = (from + to) >>> 1;
+				invokeAll(new VoiceRenderTask(from, middle, frames), new VoiceRenderTask(middle, to, frames));
+				return;
+			}
+
+			for(int voice = from; voice < to; voice++){
+				renderVoice(voice, frames);
+			}
+		}
+	}
+
+	/**
+	 * Rebuilds the band-limited waveforms and the envelope coefficients of 
+	 * all oscillators for the current sample rate. If the rate changes again
+	 * during the rebuild, it starts over, so that the last rebuild always 
+	 * uses the latest rate.
+	 * 
+	 * @author Matthias Birschl
+	 * 
+	 */
+	private class SampleRateUpdater extends Thread {
+
+		@Override
+		public void run(){
+
+			float rate;
+			do{
+				rate = sampleRate;
+				for(int i = 0; i < Constants.NUM_OSCILLATORS; i++){
+					oscillators[i].setSampleRate(rate);
+					oscillators[i].getEnvelope().setSampleRate(rate);
+				}
+			}while(rate != sampleRate);
+
+			log.debug("Waveforms rebuilt for the sample rate " + rate);
+		}
+	}
+
+}
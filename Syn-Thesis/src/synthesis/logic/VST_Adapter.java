@@ -1,300 +1,360 @@
-/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
- * 
- * This file is part of SynThesis.
- * SynThesis is free software: you can redistribute it and/or modify
- * it under the terms of the GNU General Public License as published by
- * the Free Software Foundation, either version 3 of the License, or
- * (at your option) any later version.
- *
- * This program is distributed in the hope that it will be useful,
- * but WITHOUT ANY WARRANTY; without even the implied warranty of
- * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
- * GNU General Public License for more details.
- *
- * You should have received a copy of the GNU General Public License
- * along with this program.  If not, see <http://www.gnu.org/licenses/>.
- */
-package synthesis.logic;
-
-import javax.sound.midi.ShortMessage;
-
-import jvst.wrapper.VSTPluginAdapter;
-import jvst.wrapper.valueobjects.VSTEvent;
-import jvst.wrapper.valueobjects.VSTEvents;
-import jvst.wrapper.valueobjects.VSTMidiEvent;
-
-import org.apache.log4j.Logger;
-
-import synthesis.util.Constants;
-import synthesis.util.LoggerFactory;
-/**
- * This class processes the calls from the VST host.
- * 
- * @author Matthias Birschl
- *
- */
-public class VST_Adapter extends VSTPluginAdapter {
-
-	private final Synthesizer synth = new Synthesizer();
-	private final VSTparameters parameters = new VSTparameters(synth);
-	private static float sampleRate = 44100;
-	private static Logger log = LoggerFactory.getLogger(VST_Adapter.class);
-
-	// private boolean bypass = false;
-
-	public VST_Adapter(final long wrapper){
-		super(wrapper);
-		System.setProperty("user.dir", getLogBasePath());
-		
-		setIsLogEnabled(false);
-
-		this.isSynth(true);
-		this.canProcessReplacing(true);
-
-		// Plugin ID for this synth from steinberg
-		this.setUniqueID('9' << 24 | '2' << 16 | '1' << 8 | 'k');
-
-		sampleRate = getSampleRate();
-
-	}
-
-	public static String getBasePath(){
-		return getLogBasePath();
-	}
-
-	public static float getCurrentSampleRate(){
-		return sampleRate;
-	}
-
-
-	@Override
-	public int canDo(final String feature){
-
-		if(VSTPluginAdapter.CANDO_PLUG_RECEIVE_VST_EVENTS.equals(feature)){
-			return VSTPluginAdapter.CANDO_YES;
-		}
-		if(VSTPluginAdapter.CANDO_PLUG_RECEIVE_VST_MIDI_EVENT.equals(feature)){
-			return VSTPluginAdapter.CANDO_YES;
-		}
-		// if(VSTPluginAdapter.CANDO_PLUG_BYPASS.equals(feature)){
-		// return VSTPluginAdapter.CANDO_YES;
-		// }
-
-		return VSTPluginAdapter.CANDO_NO;
-	}
-
-	@Override
-	public boolean setBypass(final boolean value){
-		// Seems not to work. The method is never called by the wrapper !?
-		return false;
-	}
-
-	@Override
-	public String getProductString(){
-		return Constants.PRODUCT_NAME;
-	}
-
-	@Override
-	public String getEffectName(){
-		return Constants.PRODUCT_NAME;
-	}
-
-	@Override
-	public String getVendorString(){
-		return Constants.VENDOR_NAME;
-	}
-
-
-	@Override
-	public int getPlugCategory(){
-		return VSTPluginAdapter.PLUG_CATEG_SYNTH;
-	}
-
-
-	@Override
-	public void setSampleRate(final float sampleRate){
-
-		VST_Adapter.sampleRate = sampleRate;
-		log.info("Samplerate was set to: " + sampleRate);
-	}
-
-	@Override
-	public void processReplacing(final float[][] inputs, final float[][] outputs, final int sampleFrames){
-
-
-		for(int i = 0; i < sampleFrames; i++){
-			outputs[0][i] = synth.getNextSample();
-			outputs[1][i] = outputs[0][i];
-		}
-	
-	}
-
-
-	@Override
-	public int processEvents(final VSTEvents e){
-
-		for(int i = 0; i < e.getNumEvents(); i++){
-
-			
-			if(e.getEvents()[i].getType() == VSTEvent.VST_EVENT_MIDI_TYPE){
-				final VSTMidiEvent event = (VSTMidiEvent)e.getEvents()[i];
-				final byte[] midiMessage = event.getData();
-
-				final int status = midiMessage[0] & 0xf0; // Only the nibble with the MIDI-status is needed
-
-				if(status == ShortMessage.PITCH_BEND){
-					processPitchBendEvent(midiMessage);
-
-				}
-
-			
-				if(status == ShortMessage.NOTE_ON || status == ShortMessage.NOTE_OFF){ 
-
-					processNoteEvent(midiMessage, status);
-
-				}
-
-			}
-		}
-
-		return 1;
-	}
-
-	/**
-	 * Process a pitch bend change.
-	 */
-	private void processPitchBendEvent(final byte[] midiMessage){
-		int a = midiMessage[2];
-		a <<= 7;
-		a |= midiMessage[1];
-
-		float pitch = (a / 8192f) - 1; // Convert to a value between -1 and 1
-
-		if(pitch > 0){
-			pitch = pitch + 1;
-		}
-		else if(pitch < 0){
-			pitch = 0.5f * pitch + 1f; // 1 Octave
-			// pitch= 0.75f*pitch+1f; // 2 Octaves
-		}else{
-			pitch = 1;
-		}
-		synth.setPitch(pitch);
-		
-	}
-	
-	/**
-	 * Process a "note on" or note "off event"
-	 */
-	private void processNoteEvent(final byte[] midiMessage, final int status){
-		
-		final int note = midiMessage[1] & 0x7f;
-		int velocity = midiMessage[2] & 0x7f;
-		if(status == ShortMessage.NOTE_OFF){ 
-			synth.noteOff(note);
-			velocity = 0;
-		}
-		if(status == ShortMessage.NOTE_ON){ 
-			synth.noteOn(note, velocity / 128f);
-		}
-	}
-	
-	
-	@Override
-	public void setParameter(final int index, final float value){
-		if(value <= 1 && value >= 0){
-			parameters.setParameter(index, value);
-		}
-	}
-
-	@Override
-	public float getParameter(final int index){
-		return parameters.getParameter(index);
-	}
-
-
-	@Override
-	public String getParameterName(final int index){
-
-		return parameters.getParamName(index);
-	}
-
-
-	@Override
-	public String getParameterDisplay(final int index){
-		return parameters.getParamDisplay(index);
-	}
-
-
-	@Override
-	public String getParameterLabel(final int index){
-
-		return parameters.getParamLabel(index);
-	}
-
-	@Override
-	public int getNumParams(){
-
-		return parameters.getNumParams();
-	}
-
-	@Override
-	public boolean string2Parameter(final int index, final String value){
-		boolean ret = false;
-		try{
-			final float val = Float.parseFloat(value);
-			setParameter(index, val);
-			ret = true;
-		}catch(final Exception e){
-			log.warn("Failed to set the parameter to the given string ", e);
-		}
-
-		return ret;
-	}
-
-	/**
-	 * Returns the synthesizer on which all the VST events get applyed
-	 */
-	public Synthesizer getSynthesizer(){
-		return synth;
-	}
-
-	@Override
-	public int getNumPrograms(){
-		// Not supported by this plugin
-		return 0;
-	}
-
-	@Override
-	public int getProgram(){
-		// Not supported by this plugin
-		return 0;
-	}
-
-	@Override
-	public void setProgram(final int index){
-		// Not supported by this plugin
-	}
-
-	@Override
-	public void setProgramName(final String name){
-		// Not supported by this plugin
-	}
-
-	@Override
-	public String getProgramName(){
-		// Not supported by this plugin
-		return "";
-	}
-
-	@Override
-	public String getProgramNameIndexed(final int category, final int index){
-		// Not supported by this plugin
-
-		// List<Preset> presets = synth.getPresets();
-		// if(presets.size()>index){
-		// return presets.get(index).getName();
-		// }
-		return "";
-	}
-}
+/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
+ * 
+ * This file is part of SynThesis.
+ * SynThesis is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package synthesis.logic;
+
+import javax.sound.midi.ShortMessage;
+
+import jvst.wrapper.VSTPluginAdapter;
+import jvst.wrapper.valueobjects.VSTEvent;
+import jvst.wrapper.valueobjects.VSTEvents;
+import jvst.wrapper.valueobjects.VSTMidiEvent;
+
+import org.apache.log4j.Logger;
+
+import synthesis.util.Constants;
+import synthesis.util.LoggerFactory;
+import synthesis.util.MIDI;
+/**
+ * This class processes the calls from the VST host.
+ * 
+ * @author Matthias Birschl
+ *
+ */
+public class VST_Adapter extends VSTPluginAdapter {
+
+	private final Synthesizer synth = new Synthesizer();
+	private final VSTparameters parameters = new VSTparameters(synth);
+	private static volatile float sampleRate = 44100;
+
+	/**
+	 * The system property, which overrides the directory of the database.
+	 * Needed, if the synthesizer runs without the VST wrapper.
+	 */
+	public static final String BASE_PATH_PROPERTY = "synthesis.basePath";
+
+	/**
+	 * The system property with the number of threads, which render the 
+	 * notes together with the audio thread. 0 or missing means, that 
+	 * the audio thread renders all notes alone.
+	 * @see Synthesizer#setRenderThreads(int)
+	 */
+	public static final String RENDER_THREADS_PROPERTY = "synthesis.renderThreads";
+
+	/**
+	 * The system property, which renders the notes with a structure of 
+	 * arrays, if it is set to true
+	 * @see Synthesizer#setStructureOfArrays(boolean)
+	 */
+	public static final String STRUCTURE_OF_ARRAYS_PROPERTY = "synthesis.structureOfArrays";
+
+	/**
+	 * The MIDI events of the next block, which get applied by 
+	 * {@link #processReplacing(float[][], float[][], int)} on their delta frames
+	 */
+	private final MidiEventQueue events = new MidiEventQueue();
+	private static Logger log = LoggerFactory.getLogger(VST_Adapter.class);
+
+	// private boolean bypass = false;
+
+	public VST_Adapter(final long wrapper){
+		super(wrapper);
+		System.setProperty("user.dir", getLogBasePath());
+		
+		setIsLogEnabled(false);
+
+		this.isSynth(true);
+		this.canProcessReplacing(true);
+
+		// Plugin ID for this synth from steinberg
+		this.setUniqueID('9' << 24 | '2' << 16 | '1' << 8 | 'k');
+
+		sampleRate = getSampleRate();
+		synth.setSampleRate(sampleRate);
+
+		final int renderThreads = Integer.getInteger(RENDER_THREADS_PROPERTY, 0);
+		if(renderThreads > 0){
+			synth.setRenderThreads(renderThreads);
+			log.info("Rendering with " + renderThreads + " additional threads");
+		}
+		if(Boolean.getBoolean(STRUCTURE_OF_ARRAYS_PROPERTY)){
+			synth.setStructureOfArrays(true);
+			log.info("Rendering with a structure of arrays");
+		}
+
+	}
+
+	public static String getBasePath(){
+		final String basePath = System.getProperty(BASE_PATH_PROPERTY);
+		return basePath != null ? basePath : getLogBasePath();
+	}
+
+	public static float getCurrentSampleRate(){
+		return sampleRate;
+	}
+
+	/**
+	 * Sets the sample rate, which is used by all synthesizers of this
+	 * plugin, without a call of the host
+	 */
+	static void setCurrentSampleRate(final float sampleRate){
+		VST_Adapter.sampleRate = sampleRate;
+	}
+
+
+	@Override
+	public int canDo(final String feature){
+
+		if(VSTPluginAdapter.CANDO_PLUG_RECEIVE_VST_EVENTS.equals(feature)){
+			return VSTPluginAdapter.CANDO_YES;
+		}
+		if(VSTPluginAdapter.CANDO_PLUG_RECEIVE_VST_MIDI_EVENT.equals(feature)){
+			return VSTPluginAdapter.CANDO_YES;
+		}
+		// if(VSTPluginAdapter.CANDO_PLUG_BYPASS.equals(feature)){
+		// return VSTPluginAdapter.CANDO_YES;
+		// }
+
+		return VSTPluginAdapter.CANDO_NO;
+	}
+
+	@Override
+	public boolean setBypass(final boolean value){
+		// Seems not to work. The method is never called by the wrapper !?
+		return false;
+	}
+
+	@Override
+	public String getProductString(){
+		return Constants.PRODUCT_NAME;
+	}
+
+	@Override
+	public String getEffectName(){
+		return Constants.PRODUCT_NAME;
+	}
+
+	@Override
+	public String getVendorString(){
+		return Constants.VENDOR_NAME;
+	}
+
+
+	@Override
+	public int getPlugCategory(){
+		return VSTPluginAdapter.PLUG_CATEG_SYNTH;
+	}
+
+
+	@Override
+	public void setSampleRate(final float sampleRate){
+
+		setCurrentSampleRate(sampleRate);
+		synth.setSampleRate(sampleRate);
+		log.info("Samplerate was set to: " + sampleRate);
+	}
+
+	@Override
+	public void close(){
+		synth.setRenderThreads(0);
+		super.close();
+	}
+
+	@Override
+	public void processReplacing(final float[][] inputs, final float[][] outputs, final int sampleFrames){
+
+		// Split the block at the positions of the MIDI events, so that 
+		// each event gets applied on the exact frame 
+		int pos = 0;
+		for(int numEvents = events.sort(); numEvents > 0; numEvents--){
+			int deltaFrame = events.peekDeltaFrame();
+			if(deltaFrame > sampleFrames){
+				deltaFrame = sampleFrames;
+			}
+			if(deltaFrame > pos){
+				synth.render(outputs[0], outputs[1], pos, deltaFrame - pos);
+				pos = deltaFrame;
+			}
+			processMidiMessage(events.peekStatus(), events.peekData1(), events.peekData2());
+			events.remove();
+		}
+
+		if(pos < sampleFrames){
+			synth.render(outputs[0], outputs[1], pos, sampleFrames - pos);
+		}
+	}
+
+
+	@Override
+	public int processEvents(final VSTEvents e){
+
+		for(int i = 0; i < e.getNumEvents(); i++){
+
+			if(e.getEvents()[i].getType() == VSTEvent.VST_EVENT_MIDI_TYPE){
+				final VSTMidiEvent event = (VSTMidiEvent)e.getEvents()[i];
+				final byte[] midiMessage = event.getData();
+
+				if(!events.add(event.getDeltaFrames(), midiMessage[0], midiMessage[1], midiMessage[2])){
+					log.warn("MIDI event queue is full, event dropped");
+				}
+			}
+		}
+		events.publish();
+
+		return 1;
+	}
+
+	/**
+	 * Applies a MIDI message to the synthesizer
+	 */
+	private void processMidiMessage(final int statusByte, final int data1, final int data2){
+
+		final int status = statusByte & 0xf0; // Only the nibble with the MIDI-status is needed
+
+		if(status == ShortMessage.PITCH_BEND){
+			processPitchBendEvent(data1, data2);
+
+		}
+
+		if(status == ShortMessage.NOTE_ON || status == ShortMessage.NOTE_OFF){ 
+
+			processNoteEvent(data1, data2, status);
+
+		}
+	}
+
+	/**
+	 * Process a pitch bend change.
+	 */
+	private void processPitchBendEvent(final int data1, final int data2){
+		synth.setPitch(MIDI.getPitchFactor(data1, data2));
+	}
+	
+	/**
+	 * Process a "note on" or note "off event"
+	 */
+	private void processNoteEvent(final int data1, final int data2, final int status){
+		
+		final int note = data1 & 0x7f;
+		int velocity = data2 & 0x7f;
+		if(status == ShortMessage.NOTE_OFF){ 
+			synth.noteOff(note);
+			velocity = 0;
+		}
+		if(status == ShortMessage.NOTE_ON){ 
+			synth.noteOn(note, velocity / 128f);
+		}
+	}
+	
+	
+	@Override
+	public void setParameter(final int index, final float value){
+		if(value <= 1 && value >= 0){
+			parameters.setParameter(index, value);
+		}
+	}
+
+	@Override
+	public float getParameter(final int index){
+		return parameters.getParameter(index);
+	}
+
+
+	@Override
+	public String getParameterName(final int index){
+
+		return parameters.getParamName(index);
+	}
+
+
+	@Override
+	public String getParameterDisplay(final int index){
+		return parameters.getParamDisplay(index);
+	}
+
+
+	@Override
+	public String getParameterLabel(final int index){
+
+		return parameters.getParamLabel(index);
+	}
+
+	@Override
+	public int getNumParams(){
+
+		return parameters.getNumParams();
+	}
+
+	@Override
+	public boolean string2Parameter(final int index, final String value){
+		boolean ret = false;
+		try{
+			final float val = Float.parseFloat(value);
+			setParameter(index, val);
+			ret = true;
+		}catch(final Exception e){
+			log.warn("Failed to set the parameter to the given string ", e);
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Returns the synthesizer on which all the VST events get applyed
+	 */
+	public Synthesizer getSynthesizer(){
+		return synth;
+	}
+
+	@Override
+	public int getNumPrograms(){
+		// Not supported by this plugin
+		return 0;
+	}
+
+	@Override
+	public int getProgram(){
+		// Not supported by this plugin
+		return 0;
+	}
+
+	@Override
+	public void setProgram(final int index){
+		// Not supported by this plugin
+	}
+
+	@Override
+	public void setProgramName(final String name){
+		// Not supported by this plugin
+	}
+
+	@Override
+	public String getProgramName(){
+		// Not supported by this plugin
+		return "";
+	}
+
+	@Override
+	public String getProgramNameIndexed(final int category, final int index){
+		// Not supported by this plugin
+
+		// List<Preset> presets = synth.getPresets();
+		// if(presets.size()>index){
+		// return presets.get(index).getName();
+		// }
+		return "";
+	}
+}
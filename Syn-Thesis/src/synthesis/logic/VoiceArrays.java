@@ -0,0 +1,223 @@
+/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
+ * 
+ * This file is part of SynThesis.
+ * SynThesis is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package synthesis.logic;
+
+import synthesis.util.Constants;
+
+/**
+ * Holds the oscillators of all notes of a block in parallel arrays instead
+ * of reading them from the note objects, and renders them after all notes
+ * are prepared. Each oscillator of a note, which contributes to the sound, 
+ * gets a lane with its waveform, phase, increment and envelope values.
+ * The notes still run their envelopes themselves and write the values into
+ * their lanes with {@link Note#prepare(VoiceArrays, int)}. The samples are 
+ * computed with the same operations in the same order as by 
+ * {@link Note#render(float[], int, int, float[], float[])}, so both produce 
+ * exactly the same output.
+ * 
+ * @author Matthias Birschl
+ *
+ */
+class VoiceArrays {
+
+	private static final int MAX_LANES = VoicePool.NUM_MIDI_NOTES * Constants.NUM_OSCILLATORS;
+
+	private static final WaveTableKernel kernel = WaveTableKernel.getInstance();
+
+	/**
+	 * The samples of the waveforms of the lanes including the guard sample
+	 */
+	private final float[][] samples = new float[MAX_LANES][];
+
+	/**
+	 * The samples of the waveforms, from which the lanes crossfade to 
+	 * their new waveforms, or null if the waveform hasn't changed
+	 */
+	private final float[][] oldSamples = new float[MAX_LANES][];
+
+	private final int[] phases = new int[MAX_LANES];
+	private final int[] increments = new int[MAX_LANES];
+
+	/**
+	 * The envelope values of the lanes multiplied with the oscillator volumes
+	 */
+	private final float[][] envelopes = new float[MAX_LANES][];
+
+	/**
+	 * The index after the last lane of each note
+	 */
+	private final int[] laneEnds = new int[VoicePool.NUM_MIDI_NOTES];
+	private final float[][] velocities = new float[VoicePool.NUM_MIDI_NOTES][];
+	private final float[][] stealGains = new float[VoicePool.NUM_MIDI_NOTES][];
+	private final boolean[] isStolen = new boolean[VoicePool.NUM_MIDI_NOTES];
+
+	/**
+	 * The buffer for the envelopes of the oscillators, which are silent
+	 */
+	private float[] scratch = new float[0];
+
+	private int numLanes = 0;
+	private int numVoices = 0;
+	private int frames = 0;
+
+	/**
+	 * Removes all notes of the last block. The buffers grow with the 
+	 * largest block size, that was requested by the host.
+	 * @param frames The number of frames of the next block
+	 */
+	void begin(final int frames){
+		this.frames = frames;
+		numLanes = 0;
+		numVoices = 0;
+		if(frames > scratch.length){
+			scratch = new float[frames];
+		}
+	}
+
+	/**
+	 * Adds an oscillator of the current note
+	 * @param samples The samples of the waveform including the guard sample
+	 * @param oldSamples The samples of the waveform of the last block, from
+	 * which the oscillator crossfades within this block, or null
+	 * @param phase The fixed-point phase of the first frame
+	 * @param increment The phase increment per frame
+	 * @return The buffer, into which the note has to write the envelope 
+	 * values of the oscillator
+	 */
+	float[] addLane(final float[] samples, final float[] oldSamples, final int phase, final int increment){
+		final int lane = numLanes++;
+		this.samples[lane] = samples;
+		this.oldSamples[lane] = oldSamples;
+		phases[lane] = phase;
+		increments[lane] = increment;
+		if(envelopes[lane] == null || envelopes[lane].length < frames){
+			envelopes[lane] = new float[scratch.length];
+		}
+		return envelopes[lane];
+	}
+
+	/**
+	 * Returns the buffer, into which the current note has to multiply its 
+	 * velocities. It is filled with 1.
+	 */
+	float[] getVelocities(){
+		if(velocities[numVoices] == null || velocities[numVoices].length < frames){
+			velocities[numVoices] = new float[scratch.length];
+		}
+		final float[] buffer = velocities[numVoices];
+		for(int j = 0; j < frames; j++){
+			buffer[j] = 1;
+		}
+		return buffer;
+	}
+
+	/**
+	 * Returns the buffer, into which the current note has to write the 
+	 * gains of its fade out, if it was stolen
+	 */
+	float[] getStealGains(){
+		if(stealGains[numVoices] == null || stealGains[numVoices].length < frames){
+			stealGains[numVoices] = new float[scratch.length];
+		}
+		return stealGains[numVoices];
+	}
+
+	/**
+	 * Finishes the current note, the next lanes belong to the next note
+	 * @param stolen True, if {@link #getStealGains()} was called for this note
+	 */
+	void endVoice(final boolean stolen){
+		isStolen[numVoices] = stolen;
+		laneEnds[numVoices] = numLanes;
+		numVoices++;
+	}
+
+	/**
+	 * Returns a buffer for the envelopes of the oscillators, which don't 
+	 * get a lane because their volumes are 0
+	 */
+	float[] getScratch(){
+		return scratch;
+	}
+
+	/**
+	 * Renders all notes of the block and writes the sum into the given buffer.
+	 * Each lane is rendered over the whole block, so its phase and 
+	 * waveform stay in registers.
+	 * @param out The buffer, whose frames get replaced
+	 * @param offset The index of the first frame in the buffer
+	 */
+	void render(final float[] out, final int offset){
+
+		for(int j = 0; j < frames; j++){
+			out[offset + j] = 0;
+		}
+
+		// The notes don't need the scratch buffer anymore
+		final float[] voiceBuffer = scratch;
+		int lane = 0;
+		for(int voice = 0; voice < numVoices; voice++){
+
+			for(int j = 0; j < frames; j++){
+				voiceBuffer[j] = 0;
+			}
+			for(final int end = laneEnds[voice]; lane < end; lane++){
+				if(oldSamples[lane] == null){
+					kernel.render(samples[lane], phases[lane], increments[lane], envelopes[lane], voiceBuffer, frames);
+				}else{
+					renderCrossfade(lane, voiceBuffer);
+				}
+			}
+
+			final float[] velocity = velocities[voice];
+			if(isStolen[voice]){
+				final float[] gain = stealGains[voice];
+				for(int j = 0; j < frames; j++){
+					out[offset + j] += voiceBuffer[j] * velocity[j] * gain[j];
+				}
+			}else{
+				for(int j = 0; j < frames; j++){
+					out[offset + j] += voiceBuffer[j] * velocity[j];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds the given lane to the buffer, while it crossfades from the 
+	 * old to the new waveform
+	 */
+	private void renderCrossfade(final int lane, final float[] voiceBuffer){
+
+		final float[] newWaveForm = samples[lane];
+		final float[] oldWaveForm = oldSamples[lane];
+		final float[] envelope = envelopes[lane];
+		final int increment = increments[lane];
+		final float fadeStep = 1f / frames;
+		int phase = phases[lane];
+		float fade = 0;
+		for(int j = 0; j < frames; j++){
+			final int x1 = phase >>> WaveForm.FRACTION_BITS;
+			final float fraction = (phase & WaveForm.FRACTION_MASK) * WaveForm.FRACTION_SCALE;
+			final float oldSample = oldWaveForm[x1] + fraction * (oldWaveForm[x1 + 1] - oldWaveForm[x1]);
+			final float newSample = newWaveForm[x1] + fraction * (newWaveForm[x1 + 1] - newWaveForm[x1]);
+			voiceBuffer[j] += (oldSample + (newSample - oldSample) * fade) * envelope[j];
+			phase += increment;
+			fade += fadeStep;
+		}
+	}
+}
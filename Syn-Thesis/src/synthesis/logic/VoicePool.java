@@ -0,0 +1,273 @@
+/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
+ * 
+ * This file is part of SynThesis.
+ * SynThesis is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package synthesis.logic;
+
+import synthesis.util.Constants;
+
+/**
+ * Contains one preallocated {@link Note} for each MIDI note number and a
+ * list of the notes, that are currently playing. Because the notes
+ * get reused, playing notes doesn't create any garbage on the audio thread.
+ * 
+ * The number of notes, that can play at the same time is limited. If a
+ * note gets started while all voices are in use, another note gets stopped
+ * with a short fade out. Which note is stopped depends on the 
+ * {@link VoiceStealing} strategy.
+ * 
+ * @author Matthias Birschl
+ */
+class VoicePool {
+
+	/**
+	 * The number of MIDI note numbers
+	 */
+	public static final int NUM_MIDI_NOTES = 128;
+
+	/**
+	 * One note for each MIDI note number
+	 */
+	private final Note[] voices = new Note[NUM_MIDI_NOTES];
+
+	/**
+	 * True for each MIDI note number, whose note is currently playing
+	 */
+	private final boolean[] isActive = new boolean[NUM_MIDI_NOTES];
+
+	/**
+	 * The MIDI note numbers of the playing notes in the order in which 
+	 * they were started. Just the first {@link #numActive} elements are valid.
+	 */
+	private final int[] activeVoices = new int[NUM_MIDI_NOTES];
+
+	private int numActive = 0;
+
+	/**
+	 * The start time of each note as a counter value, which is
+	 * used to find the oldest note
+	 */
+	private final long[] startOrder = new long[NUM_MIDI_NOTES];
+	private long startCounter = 0;
+
+	private int maxVoices = Constants.DEFAULT_MAX_VOICES;
+	private VoiceStealing voiceStealing = VoiceStealing.OLDEST;
+
+	/**
+	 * The number of notes, which were stopped to free a voice
+	 */
+	private long stolenVoices = 0;
+
+	private final Synthesizer synth;
+
+	/**
+	 * Creates the notes for all MIDI note numbers
+	 * @param synth The synthesizer, that plays the notes
+	 */
+	public VoicePool(final Synthesizer synth){
+		this.synth = synth;
+		for(int midiNote = 0; midiNote < NUM_MIDI_NOTES; midiNote++){
+			voices[midiNote] = new Note(midiNote, 0, synth);
+		}
+	}
+
+	/**
+	 * Returns the note of the given MIDI note number, if it is playing
+	 * @param midiNote A value between 0 and 127
+	 * @return The note or null, if the note is not playing or fades out
+	 * because its voice was stolen
+	 */
+	public Note get(final int midiNote){
+		if(isActive[midiNote] && !voices[midiNote].isStolen()){
+			return voices[midiNote];
+		}
+		return null;
+	}
+
+	/**
+	 * Starts playing the note of the given MIDI note number and adds it
+	 * to the list of the playing notes. If the maximum number of voices 
+	 * is reached, another note gets stolen.
+	 * @param midiNote A value between 0 and 127
+	 * @param velocity A value between 0 and 1
+	 * @return The started note
+	 */
+	public Note activate(final int midiNote, final float velocity){
+
+		while(countPlaying() >= maxVoices){
+			stealVoice();
+		}
+
+		final Note note = voices[midiNote];
+		startOrder[midiNote] = startCounter++;
+		if(isActive[midiNote]){
+			// The note still fades out, because its voice was stolen. Starting 
+			// it from the beginning would cut the fade out with a click.
+			note.retrigger(velocity);
+		}else{
+			note.start(velocity);
+			isActive[midiNote] = true;
+			activeVoices[numActive++] = midiNote;
+		}
+		return note;
+	}
+
+	/**
+	 * Marks the note as retriggered, so that the note counts as the newest note
+	 * @param midiNote A value between 0 and 127
+	 */
+	public void retrigger(final int midiNote){
+		startOrder[midiNote] = startCounter++;
+	}
+
+	/**
+	 * Returns the number of notes, that are playing and not fading out
+	 * because their voice was stolen
+	 */
+	private int countPlaying(){
+		int count = 0;
+		for(int i = 0; i < numActive; i++){
+			if(!voices[activeVoices[i]].isStolen()){
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Stops one of the playing notes with a short fade out. The note is
+	 * selected with the current {@link VoiceStealing} strategy.
+	 */
+	private void stealVoice(){
+
+		Note victim = null;
+		boolean victimReleasing = false;
+
+		for(int i = 0; i < numActive; i++){
+			final Note note = voices[activeVoices[i]];
+			if(note.isStolen()){
+				continue;
+			}
+			if(victim == null){
+				victim = note;
+				victimReleasing = note.isReleasing();
+				continue;
+			}
+
+			switch(voiceStealing){
+				case OLDEST:
+					if(startOrder[note.getMidiNote()] < startOrder[victim.getMidiNote()]){
+						victim = note;
+					}
+					break;
+				case QUIETEST:
+					if(note.getLevel() < victim.getLevel()){
+						victim = note;
+					}
+					break;
+				case RELEASED_LOWEST_VELOCITY:
+					if(note.isReleasing() && !victimReleasing
+							|| note.isReleasing() == victimReleasing && note.getVelocity() < victim.getVelocity()){
+						victim = note;
+						victimReleasing = note.isReleasing();
+					}
+					break;
+			}
+		}
+
+		if(victim != null){
+			victim.steal((int)(synth.getSampleRate() * Constants.VOICE_STEAL_FADE_TIME / 1000));
+			stolenVoices++;
+		}
+	}
+
+	/**
+	 * Sets the maximum number of notes, that can be played at the same time
+	 * @param maxVoices A value between 1 and {@link #NUM_MIDI_NOTES}
+	 */
+	public void setMaxVoices(final int maxVoices){
+		if(maxVoices < 1){
+			this.maxVoices = 1;
+		}else if(maxVoices > NUM_MIDI_NOTES){
+			this.maxVoices = NUM_MIDI_NOTES;
+		}else{
+			this.maxVoices = maxVoices;
+		}
+	}
+
+	/**
+	 * Returns the maximum number of notes, that can be played at the same time
+	 */
+	public int getMaxVoices(){
+		return maxVoices;
+	}
+
+	/**
+	 * Sets the strategy, which selects the note that gets stopped, if 
+	 * the maximum number of voices is reached
+	 */
+	public void setVoiceStealing(final VoiceStealing voiceStealing){
+		this.voiceStealing = voiceStealing;
+	}
+
+	/**
+	 * Returns the strategy, which selects the note that gets stopped, if 
+	 * the maximum number of voices is reached
+	 */
+	public VoiceStealing getVoiceStealing(){
+		return voiceStealing;
+	}
+
+	/**
+	 * Returns how many notes were stopped, because the maximum 
+	 * number of voices was reached
+	 */
+	public long getStolenVoices(){
+		return stolenVoices;
+	}
+
+	/**
+	 * Returns the number of notes, that are currently playing
+	 */
+	public int size(){
+		return numActive;
+	}
+
+	/**
+	 * Returns the playing note on the given index of the list of playing notes
+	 * @param index A value between 0 and {@link #size()} - 1
+	 */
+	public Note getActive(final int index){
+		return voices[activeVoices[index]];
+	}
+
+	/**
+	 * Removes all finished notes from the list of the playing notes.
+	 * The order of the remaining notes is kept.
+	 */
+	public void removeFinished(){
+		int newSize = 0;
+		for(int i = 0; i < numActive; i++){
+			final int midiNote = activeVoices[i];
+			if(voices[midiNote].isFinihed){
+				isActive[midiNote] = false;
+			}else{
+				activeVoices[newSize++] = midiNote;
+			}
+		}
+		numActive = newSize;
+	}
+
+}
@@ -0,0 +1,44 @@
+/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
+ * 
+ * This file is part of SynThesis.
+ * SynThesis is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package synthesis.logic;
+
+/**
+ * The strategies, which decide which note gets stopped, when a new
+ * note is started while the maximum number of voices is already playing.
+ * 
+ * @author Matthias Birschl
+ * @see Synthesizer#setMaxVoices(int)
+ */
+public enum VoiceStealing {
+
+	/**
+	 * The note that was started first gets stopped
+	 */
+	OLDEST,
+
+	/**
+	 * The note with the lowest current envelope level gets stopped
+	 */
+	QUIETEST,
+
+	/**
+	 * The released note with the lowest velocity gets stopped. If no
+	 * note is released, the note with the lowest velocity gets stopped.
+	 */
+	RELEASED_LOWEST_VELOCITY
+
+}
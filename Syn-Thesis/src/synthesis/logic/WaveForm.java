@@ -1,136 +1,209 @@
-/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
- * 
- * This file is part of SynThesis.
- * SynThesis is free software: you can redistribute it and/or modify
- * it under the terms of the GNU General Public License as published by
- * the Free Software Foundation, either version 3 of the License, or
- * (at your option) any later version.
- *
- * This program is distributed in the hope that it will be useful,
- * but WITHOUT ANY WARRANTY; without even the implied warranty of
- * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
- * GNU General Public License for more details.
- *
- * You should have received a copy of the GNU General Public License
- * along with this program.  If not, see <http://www.gnu.org/licenses/>.
- */
-package synthesis.logic;
-
-import java.util.Observable;
-
-import synthesis.util.MIDI;
-
-/**
- * This class represents a waveform. 
- * @author Matthias Birschl
- *
- */
-public class WaveForm extends Observable {
-
-//	private static Logger log = LoggerFactory.getLogger(WaveForm.class);
-
-	private final int periodLength = (int)(VST_Adapter.getCurrentSampleRate() / MIDI.getFreq(0));
-	private float[] waveForm = new float[periodLength];
-
-	public WaveForm(){
-
-		clear();
-
-	}
-
-	/**
-	 * Sets all samples of this waveform to 0
-	 */
-	public void clear(){
-		waveForm = new float[periodLength];
-		for(int i = 0; i < periodLength; i++){
-			waveForm[i] = 0f;
-		}
-	}
-
-
-
-	/**
-	 * Adds the waveform of a {@link Frequency} with the given level to this waveform.
-	 * @param freq The frequency 
-	 * @param level A value between 0 and 1
-	 */
-	public void addFrequency(final Frequency freq, final float level){
-		for(int i = 0; i < freq.getSize() && i < waveForm.length; i++){
-			waveForm[i] += freq.getSample(i) * level;
-		}
-
-	}
-
-
-	/**
- 	* Normalize this waveform
- 	*/
-	public void normalize(){
-
-		float max = 0;
-		for(final float sample: waveForm){
-			if(sample > max){
-				max = sample;
-			}else if(sample * (-1) > max){
-				max = sample * (-1);
-			}
-		}
-		if(max != 0){
-			for(int i = 0; i < waveForm.length; i++){
-				waveForm[i] = waveForm[i] / max;
-			}
-		}
-
-	}
-
-	/**
-	 * Notifies all observers, that this oscillator has changed
-	 */
-	@Override
-	public void setChanged(){
-		super.setChanged();
-		notifyObservers(); 
-	}
-
-	
-
-	public float getSample(final int position){
-		return waveForm[position % waveForm.length]; 
-	}
-
-	public void setSample(final int index, final float sample){
-		waveForm[index] = sample;
-	}
-
-
-	public int getSize(){
-		return waveForm.length;
-	}
-
-	/**
-	 * Returns the sample on the given position of the waveform. If no sample exist 
-	 * on the exact position, the sample gets interpolated with the 
-	 * linear interpolation. 
-	 * @param position The position of the waveform
-	 * @return An interpolated sample as a value between -1 and 1
-	 */
-	public float getInterpSample(final float position){
-
-		final int x1 = (int)position;
-		final int x2 = (int)position + 1;
-
-		final float y1 = waveForm[x1];
-		float y2;
-		if(x1 + 1 <= waveForm.length - 1){
-			y2 = waveForm[x1 + 1];
-		}
-		else{
-			y2 = waveForm[0]; 
-		}
-
-		final float interpSample = (position - x1) * y2 + (x2 - position) * y1; 
-
-		return interpSample;
-	}
-}
+/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
+ * 
+ * This file is part of SynThesis.
+ * SynThesis is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package synthesis.logic;
+
+
+import synthesis.util.MIDI;
+
+/**
+ * This class represents a waveform. The waveform contains one period of 
+ * the lowest MIDI note in a table with a fixed size, which is a power 
+ * of two. So a position within the waveform can be represented by a 
+ * fixed-point phase, which wraps around at the end of the period by itself.
+ * @author Matthias Birschl
+ *
+ */
+public class WaveForm extends ObservableModel {
+
+//	private static Logger log = LoggerFactory.getLogger(WaveForm.class);
+
+	/**
+	 * The number of bits of the table index
+	 */
+	private static final int SIZE_BITS = 11;
+
+	/**
+	 * The number of samples of one period
+	 */
+	public static final int SIZE = 1 << SIZE_BITS;
+
+	/**
+	 * The number of bits of a phase, which are the fraction between two samples
+	 */
+	static final int FRACTION_BITS = 32 - SIZE_BITS;
+	static final int FRACTION_MASK = (1 << FRACTION_BITS) - 1;
+	static final float FRACTION_SCALE = 1f / (1 << FRACTION_BITS);
+
+	/**
+	 * The samples of one period followed by a guard sample, which is a copy
+	 * of the first sample. So the interpolation needs no wrap-around.
+	 */
+	private float[] waveForm = new float[SIZE + 1];
+
+	public WaveForm(){
+
+		clear();
+
+	}
+
+	/**
+	 * Returns the samples of one period followed by the guard sample.
+	 * Used by the {@link WaveTableKernel}, which reads the samples directly.
+	 */
+	float[] getSamples(){
+		return waveForm;
+	}
+
+	/**
+	 * Sets all samples of this waveform to 0
+	 */
+	public void clear(){
+		waveForm = new float[SIZE + 1];
+		for(int i = 0; i < waveForm.length; i++){
+			waveForm[i] = 0f;
+		}
+	}
+
+
+
+	/**
+	 * Adds the waveform of a {@link Frequency} with the given level to this waveform.
+	 * @param freq The frequency 
+	 * @param level A value between 0 and 1
+	 */
+	public void addFrequency(final Frequency freq, final float level){
+		for(int i = 0; i < waveForm.length; i++){
+			waveForm[i] += freq.getSample(i) * level;
+		}
+
+	}
+
+
+	/**
+ 	* Normalize this waveform
+ 	* @return The peak of the waveform before it was normalized
+ 	*/
+	public float normalize(){
+
+		final float max = getPeak();
+		if(max != 0){
+			for(int i = 0; i < waveForm.length; i++){
+				waveForm[i] = waveForm[i] / max;
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Returns the highest absolute value of all samples
+	 */
+	public float getPeak(){
+		float max = 0;
+		for(final float sample: waveForm){
+			if(sample > max){
+				max = sample;
+			}else if(sample * (-1) > max){
+				max = sample * (-1);
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Sets the samples of this waveform to the samples of the given 
+	 * waveform multiplied with the given factor
+	 */
+	public void setScaled(final WaveForm source, final float factor){
+		for(int i = 0; i < waveForm.length; i++){
+			waveForm[i] = source.waveForm[i] * factor;
+		}
+	}
+
+	/**
+	 * Multiplies all samples of this waveform with the given factor
+	 */
+	public void scale(final float factor){
+		for(int i = 0; i < waveForm.length; i++){
+			waveForm[i] *= factor;
+		}
+	}
+
+
+	
+
+	public float getSample(final int position){
+		return waveForm[position & (SIZE - 1)]; 
+	}
+
+	public void setSample(final int index, final float sample){
+		waveForm[index] = sample;
+		if(index == 0){
+			waveForm[SIZE] = sample;
+		}
+	}
+
+
+	public int getSize(){
+		return SIZE;
+	}
+
+	/**
+	 * Returns the sample on the given position of the waveform. If no sample exist 
+	 * on the exact position, the sample gets interpolated with the 
+	 * linear interpolation. 
+	 * @param position The position of the waveform as a value between 0 and {@link #getSize()}
+	 * @return An interpolated sample as a value between -1 and 1
+	 */
+	public float getInterpSample(final float position){
+
+		final int x1 = (int)position;
+		final float y1 = waveForm[x1];
+
+		return y1 + (position - x1) * (waveForm[x1 + 1] - y1);
+	}
+
+	/**
+	 * Returns the linear interpolated sample on the given phase.
+	 * @param phase A fixed-point position within the period. The upper 
+	 * bits are the index of the sample, the lower bits are the fraction
+	 * between two samples. The whole int range covers exactly one period.
+	 * @return An interpolated sample as a value between -1 and 1
+	 */
+	public float getSampleAtPhase(final int phase){
+
+		final int x1 = phase >>> FRACTION_BITS;
+		final float y1 = waveForm[x1];
+
+		return y1 + (phase & FRACTION_MASK) * FRACTION_SCALE * (waveForm[x1 + 1] - y1);
+	}
+
+	/**
+	 * Converts a playback step to the phase increment per sample.
+	 * @param step The frequency of the played note divided by the frequency
+	 * of the lowest MIDI note
+	 * @param sampleRate The sample rate in Hz
+	 * @return The value, that gets added to the phase for each sample
+	 */
+	public static int getPhaseIncrement(final float step, final float sampleRate){
+
+		final double increment = step * (double)MIDI.getFreq(0) / sampleRate * 4294967296.0;
+		if(increment >= Integer.MAX_VALUE){
+			return Integer.MAX_VALUE;
+		}
+		return (int)increment;
+	}
+}
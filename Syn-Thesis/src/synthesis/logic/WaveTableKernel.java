@@ -0,0 +1,116 @@
+/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
+ * 
+ * This file is part of SynThesis.
+ * SynThesis is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package synthesis.logic;
+
+import org.apache.log4j.Logger;
+
+import synthesis.util.LoggerFactory;
+
+/**
+ * Plays a waveform with linear interpolation over a block of frames. 
+ * This implementation processes one frame after another. If the 
+ * incubator module jdk.incubator.vector is available, a subclass processes
+ * several frames at once with SIMD instructions. The implementation is 
+ * selected once at startup, both produce exactly the same samples.
+ * 
+ * @author Matthias Birschl
+ *
+ */
+class WaveTableKernel {
+
+	private static Logger log = LoggerFactory.getLogger(WaveTableKernel.class);
+
+	/**
+	 * The system property, which disables the vector implementation if 
+	 * it is set to false
+	 */
+	static final String VECTOR_PROPERTY = "synthesis.vectorKernel";
+
+	/**
+	 * The system property with the width of the vectors in bits. If it is
+	 * missing, the preferred width of the CPU is used.
+	 */
+	static final String VECTOR_BITS_PROPERTY = "synthesis.vectorBits";
+
+	private static final String VECTOR_CLASS = "synthesis.logic.VectorWaveTableKernel";
+
+	private static final WaveTableKernel instance = create();
+
+	/**
+	 * Returns the implementation, which was selected at startup
+	 */
+	static WaveTableKernel getInstance(){
+		return instance;
+	}
+
+	/**
+	 * Creates the vector implementation, if the module jdk.incubator.vector
+	 * is available, otherwise this scalar implementation
+	 */
+	private static WaveTableKernel create(){
+
+		if(!"false".equals(System.getProperty(VECTOR_PROPERTY))){
+			try{
+				final WaveTableKernel kernel = (WaveTableKernel)Class.forName(VECTOR_CLASS).getDeclaredConstructor().newInstance();
+				log.info("Using the wavetable kernel " + kernel);
+				return kernel;
+			}catch(final ReflectiveOperationException | LinkageError e){
+				// The class isn't compiled, the JVM was started without 
+				// --add-modules jdk.incubator.vector, or the vectors are too narrow
+				log.debug("Vector API not available, using the scalar wavetable kernel: " + e);
+			}
+		}
+		return new WaveTableKernel();
+	}
+
+	/**
+	 * Adds the interpolated samples of the given waveform multiplied with 
+	 * the envelope values to the output buffer
+	 * @param samples The samples of the waveform including the guard sample
+	 * @see WaveForm#getSamples()
+	 * @param phase The fixed-point phase of the first frame
+	 * @param increment The phase increment per frame
+	 * @param envelope The envelope values of the frames
+	 * @param out The buffer, to which the samples get added
+	 * @param frames The number of frames
+	 * @return The phase after the last frame
+	 * @see WaveForm#getSampleAtPhase(int)
+	 */
+	int render(final float[] samples, final int phase, final int increment, final float[] envelope, final float[] out, final int frames){
+		return renderFrames(samples, phase, increment, envelope, out, 0, frames);
+	}
+
+	/**
+	 * Renders the frames within the given range one after another
+	 * @see #render(float[], int, int, float[], float[], int)
+	 */
+	static int renderFrames(final float[] samples, int phase, final int increment, final float[] envelope, final float[] out, final int from, final int to){
+
+		for(int j = from; j < to; j++){
+			final int x1 = phase >>> WaveForm.FRACTION_BITS;
+			final float y1 = samples[x1];
+			out[j] += (y1 + (phase & WaveForm.FRACTION_MASK) * WaveForm.FRACTION_SCALE * (samples[x1 + 1] - y1)) * envelope[j];
+			phase += increment;
+		}
+		return phase;
+	}
+
+	@Override
+	public String toString(){
+		return "scalar";
+	}
+}
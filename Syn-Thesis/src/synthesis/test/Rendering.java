@@ -0,0 +1,368 @@
+/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
+ * 
+ * This file is part of SynThesis.
+ * SynThesis is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package synthesis.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import synthesis.logic.Synthesizer;
+import synthesis.logic.VST_Adapter;
+import synthesis.logic.VSTparameters;
+import synthesis.util.Constants;
+
+public class Rendering {
+
+	private static final int BLOCK_SIZE = 256;
+
+	private final Synthesizer synth = Synthesizer.createWithoutPresets();
+	private final float[] left = new float[BLOCK_SIZE];
+	private final float[] right = new float[BLOCK_SIZE];
+
+	@Before
+	public void setUp(){
+		setLevels(synth);
+	}
+
+	private static void setLevels(final Synthesizer synth){
+		for(int i = 0; i < Constants.NUM_OSCILLATORS; i++){
+			final float[] levels = new float[Constants.NUM_ADDITIVE_FREQS];
+			levels[i] = 1;
+			levels[i + 4] = 0.5f;
+			synth.getOscillator(i).setAdditiveFreqLevels(levels);
+		}
+	}
+
+	@Test
+	public void noAllocationWhilePlaying(){
+
+		// Warm up, so that lazily created buffers and the JIT don't count
+		for(int i = 0; i < 200; i++){
+			playChord(i);
+		}
+
+		final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+		final long threadId = Thread.currentThread().getId();
+
+		final long before = threadBean.getThreadAllocatedBytes(threadId);
+		for(int i = 0; i < 200; i++){
+			playChord(i);
+		}
+		final long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+		assertEquals(0, allocated);
+	}
+
+	@Test
+	public void parallelRenderingEqualsSerial(){
+
+		final ForkJoinPool pool = new ForkJoinPool(4);
+		compareWithSerial(Synthesizer.createWithoutPresets(), pool);
+		pool.shutdown();
+	}
+
+	@Test
+	public void renderThreadsEqualSerial(){
+
+		final Synthesizer parallelSynth = Synthesizer.createWithoutPresets();
+		parallelSynth.setRenderThreads(2);
+		compareWithSerial(parallelSynth, null);
+		parallelSynth.setRenderThreads(0);
+	}
+
+	@Test
+	public void renderThreadsWithChangingBlocks(){
+
+		// Each note advances its phases and envelopes, when it gets rendered.
+		// If a note got rendered twice or not at all within a block, or with
+		// the frames of another block, the output would differ from the 
+		// serial rendering from then on.
+		final Synthesizer parallelSynth = Synthesizer.createWithoutPresets();
+		setLevels(parallelSynth);
+		// More threads than cores, so that the threads get preempted within a block
+		parallelSynth.setRenderThreads(Runtime.getRuntime().availableProcessors() + 2);
+
+		final int[] blockSizes = { 64, 1000, 17, 512, 256, 333, 8 };
+		final float[] parallelLeft = new float[BLOCK_SIZE * 4];
+		final float[] parallelRight = new float[BLOCK_SIZE * 4];
+		final float[] serialLeft = new float[BLOCK_SIZE * 4];
+		final float[] serialRight = new float[BLOCK_SIZE * 4];
+
+		for(int block = 0; block < 3000; block++){
+
+			// The number of notes changes with each block
+			final int maxVoices = block % 2 == 0 ? 9 : 40;
+			synth.setMaxVoices(maxVoices);
+			parallelSynth.setMaxVoices(maxVoices);
+			final int note = 24 + block * 13 % 80;
+			synth.noteOn(note, 0.7f);
+			parallelSynth.noteOn(note, 0.7f);
+			if(block % 3 == 0){
+				synth.noteOff(note - 13);
+				parallelSynth.noteOff(note - 13);
+			}
+
+			final int frames = blockSizes[block % blockSizes.length];
+			synth.render(serialLeft, serialRight, 0, frames);
+			parallelSynth.render(parallelLeft, parallelRight, 0, frames);
+
+			assertArrayEquals(serialLeft, parallelLeft, 0);
+		}
+		parallelSynth.setRenderThreads(0);
+	}
+
+	@Test
+	public void structureOfArraysEqualsObjects(){
+
+		final Synthesizer arraySynth = Synthesizer.createWithoutPresets();
+		setLevels(arraySynth);
+		arraySynth.setStructureOfArrays(true);
+		final VSTparameters parameters = new VSTparameters(synth);
+		final VSTparameters arrayParameters = new VSTparameters(arraySynth);
+
+		final int[] blockSizes = { 256, 64, 1000, 17, 333, 1 };
+		final float[] arrayLeft = new float[BLOCK_SIZE * 4];
+		final float[] arrayRight = new float[BLOCK_SIZE * 4];
+		final float[] objectLeft = new float[BLOCK_SIZE * 4];
+		final float[] objectRight = new float[BLOCK_SIZE * 4];
+
+		// Few voices, so that notes get stolen and stolen notes retriggered
+		synth.setMaxVoices(12);
+		arraySynth.setMaxVoices(12);
+
+		for(int block = 0; block < 600; block++){
+
+			final int note = 36 + block * 7 % 30;
+			final float velocity = 0.3f + block % 5 * 0.15f;
+			synth.noteOn(note, velocity);
+			arraySynth.noteOn(note, velocity);
+			if(block % 4 == 0){
+				synth.noteOff(note - 7);
+				arraySynth.noteOff(note - 7);
+			}
+			if(block % 3 == 0){
+				// The note of the last block gets retriggered with another velocity
+				synth.noteOn(note - 7, 1 - velocity);
+				arraySynth.noteOn(note - 7, 1 - velocity);
+			}
+
+			if(block % 50 == 10){
+				// A new waveform gets crossfaded within the next block
+				final float[] levels = new float[Constants.NUM_ADDITIVE_FREQS];
+				levels[block % 7] = 1;
+				levels[block % 7 + 3] = 0.3f;
+				synth.getOscillator(block % Constants.NUM_OSCILLATORS).setAdditiveFreqLevels(levels);
+				arraySynth.getOscillator(block % Constants.NUM_OSCILLATORS).setAdditiveFreqLevels(levels);
+			}
+			if(block % 50 == 30){
+				// The volume of an oscillator gets ramped down to 0 and up again
+				final int volume = (block / 50 % Constants.NUM_OSCILLATORS) * Constants.NUM_AUTO_OSC_PARAMS + 4;
+				final float value = block / 50 % 2 == 0 ? 0 : 1;
+				parameters.setParameter(volume, value);
+				arrayParameters.setParameter(volume, value);
+			}
+
+			final int frames = blockSizes[block % blockSizes.length];
+			synth.render(objectLeft, objectRight, 0, frames);
+			arraySynth.render(arrayLeft, arrayRight, 0, frames);
+
+			assertArrayEquals(objectLeft, arrayLeft, 0);
+			assertArrayEquals(objectRight, arrayRight, 0);
+		}
+	}
+
+	@Test
+	public void retriggerTakesEffectImmediately(){
+
+		synth.noteOn(60, 0.2f);
+		render(20);
+		final float quietPeak = getPeak();
+
+		// The velocity glides to the new value within a few ms, so the 
+		// second block after the retrigger plays at least with the 
+		// full velocity and the sustain level
+		synth.noteOn(60, 1f);
+		render(2);
+		assertTrue(getPeak() / quietPeak > 4.9f);
+	}
+
+	@Test
+	public void volumeAutomationIsRamped(){
+
+		final VSTparameters parameters = new VSTparameters(synth);
+		synth.noteOn(60, 1f);
+		render(20);
+		final float peak = getPeak();
+
+		// The volume falls within a few ms instead of at once
+		for(int i = 0; i < Constants.NUM_OSCILLATORS; i++){
+			parameters.setParameter(i * Constants.NUM_AUTO_OSC_PARAMS + 4, 0);
+		}
+		render(1);
+		assertTrue(getPeak() > peak / 2);
+
+		render(4);
+		assertEquals(0, getPeak(), 0);
+
+		// The note is still held, so it gets audible again
+		for(int i = 0; i < Constants.NUM_OSCILLATORS; i++){
+			parameters.setParameter(i * Constants.NUM_AUTO_OSC_PARAMS + 4, 1);
+		}
+		render(4);
+		assertTrue(getPeak() > peak / 2);
+	}
+
+	@Test
+	public void stolenNoteRetriggeredWithoutClick(){
+
+		// A sine, so that the steps between the samples are small
+		for(int i = 0; i < Constants.NUM_OSCILLATORS; i++){
+			final float[] levels = new float[Constants.NUM_ADDITIVE_FREQS];
+			levels[0] = i == 0 ? 1 : 0;
+			synth.getOscillator(i).setAdditiveFreqLevels(levels);
+		}
+
+		synth.setMaxVoices(1);
+		synth.noteOn(60, 1f);
+		render(20);
+		final float steadyJump = getLargestJump();
+
+		// The second note steals the voice of the first one, which is
+		// triggered again, while it still fades out
+		synth.noteOn(62, 1f);
+		synth.render(left, right, 0, 32);
+		final float lastSample = left[31];
+		synth.noteOn(60, 1f);
+		synth.render(left, right, 0, BLOCK_SIZE);
+
+		assertTrue(Math.abs(left[0] - lastSample) < 2 * steadyJump);
+		assertTrue(getLargestJump() < 2 * steadyJump);
+	}
+
+	@Test
+	public void releaseTailStaysNormal(){
+		releaseTail(false);
+		releaseTail(true);
+	}
+
+	/**
+	 * Plays a note through its release phase. Denormal numbers in the tail
+	 * would make the last blocks of a note much slower than the others, so
+	 * all samples have to be 0 or normal numbers, and the note has to 
+	 * finish with the end of the release instead of rendering silence.
+	 */
+	private void releaseTail(final boolean exponential){
+
+		final int releaseTime = 100;
+		for(int i = 0; i < Constants.NUM_OSCILLATORS; i++){
+			synth.getOscillator(i).getEnvelope().setADSR(1, 1, 1, releaseTime);
+			synth.getOscillator(i).getEnvelope().setExponential(exponential);
+		}
+
+		synth.noteOn(60, 1f);
+		render(4);
+		synth.noteOff(60);
+
+		final int releaseBlocks = (int)(VST_Adapter.getCurrentSampleRate() * releaseTime / 1000 / BLOCK_SIZE);
+		for(int block = 0; block <= releaseBlocks; block++){
+			synth.render(left, right, 0, BLOCK_SIZE);
+			for(int i = 0; i < BLOCK_SIZE; i++){
+				assertTrue(left[i] == 0 || Math.abs(left[i]) >= Float.MIN_NORMAL);
+			}
+		}
+
+		render(1);
+		assertEquals(0, synth.getActiveVoiceCount());
+	}
+
+	/**
+	 * Returns the largest difference between two neighboring samples of the block
+	 */
+	private float getLargestJump(){
+		float jump = 0;
+		for(int i = 1; i < BLOCK_SIZE; i++){
+			jump = Math.max(jump, Math.abs(left[i] - left[i - 1]));
+		}
+		return jump;
+	}
+
+	private float getPeak(){
+		float peak = 0;
+		for(int i = 0; i < BLOCK_SIZE; i++){
+			peak = Math.max(peak, Math.abs(left[i]));
+		}
+		return peak;
+	}
+
+	/**
+	 * Plays the same notes with the synthesizer of this test and the given
+	 * synthesizer and checks, that both render exactly the same blocks
+	 * @param pool The pool for the parallel rendering of the given synthesizer
+	 */
+	private void compareWithSerial(final Synthesizer parallelSynth, final ForkJoinPool pool){
+
+		setLevels(parallelSynth);
+		synth.setMaxVoices(64);
+		parallelSynth.setMaxVoices(64);
+
+		final float[] parallelLeft = new float[BLOCK_SIZE];
+		final float[] parallelRight = new float[BLOCK_SIZE];
+
+		for(int round = 0; round < 100; round++){
+			final int note = 24 + round % 64;
+			synth.noteOn(note, 0.5f + round % 4 * 0.1f);
+			parallelSynth.noteOn(note, 0.5f + round % 4 * 0.1f);
+			if(round % 3 == 0){
+				synth.noteOff(note - 20);
+				parallelSynth.noteOff(note - 20);
+			}
+
+			synth.render(left, right, 0, BLOCK_SIZE);
+			parallelSynth.render(parallelLeft, parallelRight, 0, BLOCK_SIZE, pool);
+
+			assertArrayEquals(left, parallelLeft, 0);
+			assertArrayEquals(right, parallelRight, 0);
+		}
+	}
+
+	/**
+	 * Plays some notes, releases them and renders a few blocks
+	 */
+	private void playChord(final int round){
+		final int root = 36 + round % 48;
+		synth.noteOn(root, 0.8f);
+		synth.noteOn(root + 4, 0.6f);
+		synth.noteOn(root + 7, 0.7f);
+		render(4);
+		synth.noteOff(root);
+		synth.noteOff(root + 4);
+		synth.noteOff(root + 7);
+		render(4);
+	}
+
+	private void render(final int blocks){
+		for(int i = 0; i < blocks; i++){
+			synth.render(left, right, 0, BLOCK_SIZE);
+		}
+	}
+}
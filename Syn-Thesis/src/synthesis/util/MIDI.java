@@ -1,47 +1,73 @@
-/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
- * 
- * This file is part of SynThesis.
- * SynThesis is free software: you can redistribute it and/or modify
- * it under the terms of the GNU General Public License as published by
- * the Free Software Foundation, either version 3 of the License, or
- * (at your option) any later version.
- *
- * This program is distributed in the hope that it will be useful,
- * but WITHOUT ANY WARRANTY; without even the implied warranty of
- * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
- * GNU General Public License for more details.
- *
- * You should have received a copy of the GNU General Public License
- * along with this program.  If not, see <http://www.gnu.org/licenses/>.
- */
-package synthesis.util;
-
-/**
- * This is a helper class, which converts MIDI note numbers to
- * frequencies
- * @author Matthias Birschl
- *
- */
-public class MIDI {
-
-	private static float[] frequencies = new float[128];
-
-	static{
-		for(int midiNote = 0; midiNote < 128; midiNote++){
-
-			// 69 is the concert pitch(440 Hz)
-			frequencies[midiNote] = 440 * (float)Math.pow(2, ((midiNote - 69.0) / 12.0)); 
-		}
-
-	}
-
-	/**
-	 * Returns the frequency related to the given midiNote
-	 * @param midiNote A value between 0 and 127
-	 * @return The frequency in Hz
-	 */
-	public static float getFreq(final int midiNote){
-
-		return frequencies[midiNote];
-	}
-}
+/* Copyright (C) 2011 by Matthias Birschl (m-birschl@gmx.de)
+ * 
+ * This file is part of SynThesis.
+ * SynThesis is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package synthesis.util;
+
+/**
+ * This is a helper class, which converts MIDI note numbers to
+ * frequencies and pitch bend messages to pitch factors
+ * @author Matthias Birschl
+ *
+ */
+public class MIDI {
+
+	private static float[] frequencies = new float[128];
+
+	static{
+		for(int midiNote = 0; midiNote < 128; midiNote++){
+
+			// 69 is the concert pitch(440 Hz)
+			frequencies[midiNote] = 440 * (float)Math.pow(2, ((midiNote - 69.0) / 12.0)); 
+		}
+
+	}
+
+	/**
+	 * Returns the frequency related to the given midiNote
+	 * @param midiNote A value between 0 and 127
+	 * @return The frequency in Hz
+	 */
+	public static float getFreq(final int midiNote){
+
+		return frequencies[midiNote];
+	}
+
+	/**
+	 * Converts the data bytes of a pitch bend message to a pitch factor.
+	 * The pitch can be bent one octave up and one octave down.
+	 * @param data1 The least significant 7 bits of the pitch bend value
+	 * @param data2 The most significant 7 bits of the pitch bend value
+	 * @return A factor between 0.5 and 2. 1 means the default pitch
+	 */
+	public static float getPitchFactor(final int data1, final int data2){
+		int a = data2;
+		a <<= 7;
+		a |= data1;
+
+		float pitch = (a / 8192f) - 1; // Convert to a value between -1 and 1
+
+		if(pitch > 0){
+			pitch = pitch + 1;
+		}
+		else if(pitch < 0){
+			pitch = 0.5f * pitch + 1f; // 1 Octave
+			// pitch= 0.75f*pitch+1f; // 2 Octaves
+		}else{
+			pitch = 1;
+		}
+		return pitch;
+	}
+}